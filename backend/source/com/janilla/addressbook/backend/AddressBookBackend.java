@@ -28,10 +28,12 @@ package com.janilla.addressbook.backend;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.lang.reflect.Modifier;
 import java.net.InetSocketAddress;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -39,15 +41,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.net.ssl.SSLContext;
 
 import com.janilla.backend.persistence.Persistence;
 import com.janilla.backend.persistence.PersistenceBuilder;
 import com.janilla.http.HttpClient;
+import com.janilla.http.HttpExchange;
 import com.janilla.http.HttpHandler;
+import com.janilla.http.HttpRequest;
+import com.janilla.http.HttpResponse;
 import com.janilla.http.HttpServer;
 import com.janilla.ioc.DefaultDiFactory;
 import com.janilla.ioc.DiFactory;
@@ -55,7 +63,6 @@ import com.janilla.java.Converter;
 import com.janilla.java.DollarTypeResolver;
 import com.janilla.java.Java;
 import com.janilla.java.TypeResolver;
-import com.janilla.persistence.Store;
 import com.janilla.web.ApplicationHandlerFactory;
 import com.janilla.web.Invocable;
 import com.janilla.web.InvocationResolver;
@@ -66,21 +73,61 @@ public class AddressBookBackend {
 	public static final String[] DI_PACKAGES = { "com.janilla.web", "com.janilla.addressbook.backend" };
 
 	public static void main(String[] args) {
+		var f = new DefaultDiFactory(Arrays.stream(DI_PACKAGES)
+				.flatMap(x -> ClassIndex.getPackageClasses(AddressBookBackend.class, x).stream()).toList());
+		String c = null;
+		String i = null;
+		for (var x : args)
+			if (x.startsWith("--import="))
+				i = x.substring("--import=".length());
+			else
+				c = x;
+		if (i != null) {
+			System.exit(importContacts(f, c, i) ? 0 : 1);
+			return;
+		}
 		IO.println(ProcessHandle.current().pid());
-		var f = new DefaultDiFactory(
-				Arrays.stream(DI_PACKAGES).flatMap(x -> Java.getPackageClasses(x, false).stream()).toList());
-		serve(f, args.length > 0 ? args[0] : null);
+		if (Boolean.getBoolean("address-book.training")) {
+			var b = "https://localhost:" + new CustomProperties(c != null
+					? Path.of(c.startsWith("~") ? System.getProperty("user.home") + c.substring(1) : c)
+					: null).getProperty("address-book.server.port");
+			var u = URI.create(b + "/api");
+			Thread.ofVirtual()
+					.start(() -> System.exit(ApiTraining.run(LoopbackClient.newBuilder(u).build(), u) ? 0 : 1));
+		}
+		serve(f, c);
 	}
 
-	protected static void serve(DiFactory diFactory, String configurationPath) {
-		AddressBookBackend a;
-		{
-			a = diFactory.newInstance(diFactory.classFor(AddressBookBackend.class),
-					Java.hashMap("diFactory", diFactory, "configurationFile",
-							configurationPath != null ? Path.of(configurationPath.startsWith("~")
-									? System.getProperty("user.home") + configurationPath.substring(1)
-									: configurationPath) : null));
+	protected static AddressBookBackend newInstance(DiFactory diFactory, String configurationPath) {
+		return diFactory.newInstance(diFactory.classFor(AddressBookBackend.class),
+				Java.hashMap("diFactory", diFactory, "configurationFile",
+						configurationPath != null ? Path.of(configurationPath.startsWith("~")
+								? System.getProperty("user.home") + configurationPath.substring(1)
+								: configurationPath) : null));
+	}
+
+	protected static boolean importContacts(DiFactory diFactory, String configurationPath, String file) {
+		var a = newInstance(diFactory, configurationPath);
+		var t = System.nanoTime();
+		try (var s = file.equals("-") ? System.in : Files.newInputStream(Path.of(file))) {
+			var n = a.contactImport.run(s, x -> IO.println(x + " contacts, " + rate(x, t) + " contacts/s"));
+			IO.println("Imported " + n + " contacts into " + a.configuration.getProperty("address-book.database.file")
+					+ " (" + rate(n, t) + " contacts/s)");
+			return true;
+		} catch (InvalidImportException e) {
+			IO.println(e.getMessage());
+			return false;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
 		}
+	}
+
+	protected static long rate(long count, long start) {
+		return count * 1_000_000_000L / Math.max(System.nanoTime() - start, 1);
+	}
+
+	protected static void serve(DiFactory diFactory, String configurationPath) {
+		var a = newInstance(diFactory, configurationPath);
 
 		SSLContext c;
 		{
@@ -107,23 +154,58 @@ public class AddressBookBackend {
 			s = a.diFactory.newInstance(a.diFactory.classFor(HttpServer.class),
 					Map.of("sslContext", c, "endpoint", new InetSocketAddress(p), "handler", a.handler));
 		}
-		s.serve();
+		ProcessHandle.current().info().startInstant()
+				.ifPresent(x -> IO.println("Started in " + Duration.between(x, Instant.now()).toMillis() + " ms"));
+		a.databaseStats.start();
+		a.settingsWatcher.start();
+		try {
+			s.serve();
+		} finally {
+			a.settingsWatcher.close();
+			a.databaseStats.close();
+		}
 	}
 
 	protected final Properties configuration;
 
+	protected final ContactCache contactCache;
+
+	protected final ContactExport contactExport;
+
+	protected final ContactGrams contactGrams;
+
+	protected final ContactImport contactImport;
+
+	protected final ContactIndex contactIndex;
+
 	protected final Converter converter;
 
+	protected final DatabaseStats databaseStats;
+
 	protected final DiFactory diFactory;
 
 	protected final HttpHandler handler;
 
+	protected final IdGenerator idGenerator;
+
 	protected final InvocationResolver invocationResolver;
 
+	protected final Metrics metrics;
+
 	protected final Persistence persistence;
 
+	protected final QueryCache queryCache;
+
 	protected final List<Class<?>> resolvables;
 
+	protected final Routes routes;
+
+	protected final Revision revision;
+
+	protected final SettingsWatcher settingsWatcher;
+
+	protected final Map<Class<?>, Object> singletons;
+
 	protected final List<Class<?>> storables;
 
 	protected final TypeResolver typeResolver;
@@ -133,6 +215,8 @@ public class AddressBookBackend {
 		diFactory.context(this);
 		configuration = diFactory.newInstance(diFactory.classFor(Properties.class),
 				Collections.singletonMap("file", configurationFile));
+		settingsWatcher = diFactory.newInstance(diFactory.classFor(SettingsWatcher.class),
+				Collections.singletonMap("file", configurationFile));
 
 		{
 			Map<String, Class<?>> m = diFactory.types().stream()
@@ -142,7 +226,7 @@ public class AddressBookBackend {
 		typeResolver = diFactory.newInstance(diFactory.classFor(DollarTypeResolver.class));
 		converter = diFactory.newInstance(diFactory.classFor(Converter.class));
 
-		storables = resolvables.stream().filter(x -> x.isAnnotationPresent(Store.class)).toList();
+		storables = resolvables.stream().filter(x -> ClassIndex.isStore(AddressBookBackend.class, x)).toList();
 		{
 			var f = configuration.getProperty("address-book.database.file");
 			if (f.startsWith("~"))
@@ -151,21 +235,29 @@ public class AddressBookBackend {
 					Map.of("databaseFile", Path.of(f)));
 			persistence = b.build(diFactory);
 		}
-
-		invocationResolver = diFactory.newInstance(diFactory.classFor(InvocationResolver.class),
-				Map.of("invocables",
-						diFactory.types().stream()
-								.flatMap(x -> Arrays.stream(x.getMethods())
-										.filter(y -> !Modifier.isStatic(y.getModifiers()) && !y.isBridge())
-										.map(y -> new Invocable(x, y)))
-								.toList(),
-						"instanceResolver", (Function<Class<?>, Object>) x -> {
-							var y = diFactory.context();
-//							IO.println("x=" + x + ", y=" + y);
-							return x.isAssignableFrom(y.getClass()) ? diFactory.context()
-									: diFactory.newInstance(diFactory.classFor(x),
-											Map.of("invocationResolver", InvocationResolver.INSTANCE.get()));
-						}));
+		databaseStats = diFactory.newInstance(diFactory.classFor(DatabaseStats.class));
+		contactCache = diFactory.newInstance(diFactory.classFor(ContactCache.class));
+		contactGrams = diFactory.newInstance(diFactory.classFor(ContactGrams.class));
+		contactIndex = diFactory.newInstance(diFactory.classFor(ContactIndex.class));
+		idGenerator = diFactory.newInstance(diFactory.classFor(IdGenerator.class));
+		metrics = diFactory.newInstance(diFactory.classFor(Metrics.class));
+		revision = diFactory.newInstance(diFactory.classFor(Revision.class));
+		queryCache = diFactory.newInstance(diFactory.classFor(QueryCache.class));
+		contactExport = diFactory.newInstance(diFactory.classFor(ContactExport.class));
+		contactImport = diFactory.newInstance(diFactory.classFor(ContactImport.class));
+
+		routes = diFactory.newInstance(diFactory.classFor(Routes.class));
+		singletons = new ConcurrentHashMap<>();
+		{
+			var ii = ClassIndex.getInvocables(AddressBookBackend.class, diFactory.types());
+			var tt = ii.stream().map(Invocable::type).collect(Collectors.toSet());
+			for (var x : tt)
+				if (x.isAnnotationPresent(Singleton.class))
+					checkSingleton(x, tt);
+			invocationResolver = diFactory.newInstance(diFactory.classFor(InvocationResolver.class),
+					Map.of("invocables", ii, "instanceResolver", (Function<Class<?>, Object>) this::instance, "routes",
+							routes));
+		}
 		{
 			var f = diFactory.newInstance(diFactory.classFor(ApplicationHandlerFactory.class));
 			handler = x -> {
@@ -185,10 +277,34 @@ public class AddressBookBackend {
 		return configuration;
 	}
 
+	public ContactCache contactCache() {
+		return contactCache;
+	}
+
+	public ContactExport contactExport() {
+		return contactExport;
+	}
+
+	public ContactGrams contactGrams() {
+		return contactGrams;
+	}
+
+	public ContactImport contactImport() {
+		return contactImport;
+	}
+
+	public ContactIndex contactIndex() {
+		return contactIndex;
+	}
+
 	public Converter converter() {
 		return converter;
 	}
 
+	public DatabaseStats databaseStats() {
+		return databaseStats;
+	}
+
 	public DiFactory diFactory() {
 		return diFactory;
 	}
@@ -197,18 +313,52 @@ public class AddressBookBackend {
 		return handler;
 	}
 
+	public IdGenerator idGenerator() {
+		return idGenerator;
+	}
+
+	public Object instance(Class<?> type) {
+		var x = diFactory.context();
+//		IO.println("type=" + type + ", x=" + x);
+		if (type.isAssignableFrom(x.getClass()))
+			return x;
+		if (type.isAnnotationPresent(Singleton.class))
+			return singletons.computeIfAbsent(type, y -> diFactory.newInstance(diFactory.classFor(y), arguments()));
+		return diFactory.newInstance(diFactory.classFor(type), arguments());
+	}
+
 	public InvocationResolver invocationResolver() {
 		return invocationResolver;
 	}
 
+	public Metrics metrics() {
+		return metrics;
+	}
+
 	public Persistence persistence() {
 		return persistence;
 	}
 
+	public QueryCache queryCache() {
+		return queryCache;
+	}
+
 	public List<Class<?>> resolvables() {
 		return resolvables;
 	}
 
+	public Revision revision() {
+		return revision;
+	}
+
+	public Routes routes() {
+		return routes;
+	}
+
+	public SettingsWatcher settingsWatcher() {
+		return settingsWatcher;
+	}
+
 	public List<Class<?>> storables() {
 		return storables;
 	}
@@ -216,4 +366,20 @@ public class AddressBookBackend {
 	public TypeResolver typeResolver() {
 		return typeResolver;
 	}
+
+	protected Map<String, ?> arguments() {
+		return Map.of("invocationResolver", InvocationResolver.INSTANCE.orElse(invocationResolver));
+	}
+
+	protected void checkSingleton(Class<?> type, Set<Class<?>> scoped) {
+		for (var x : diFactory.classFor(type).getConstructors())
+			for (var y : x.getParameters()) {
+				var t = y.getType();
+				if (Stream.of(HttpExchange.class, HttpRequest.class, HttpResponse.class)
+						.anyMatch(z -> z.isAssignableFrom(t))
+						|| (scoped.contains(t) && !t.isAnnotationPresent(Singleton.class)))
+					throw new IllegalStateException("@Singleton " + type.getName() + " depends on per-request "
+							+ t.getName() + " " + y.getName());
+			}
+	}
 }
@@ -26,7 +26,10 @@
  */
 package com.janilla.addressbook.backend;
 
+import java.text.Normalizer;
 import java.time.Instant;
+import java.util.Locale;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -35,8 +38,14 @@ import com.janilla.persistence.Index;
 import com.janilla.persistence.Store;
 
 @Store
-public record Contact(String id, Instant createdAt, String avatar, String first, String last, String twitter,
-		Boolean favorite) implements Entity<String> {
+public record Contact(String id, @Index Instant createdAt, String avatar, @Index String first, @Index String last,
+		String twitter, @Index Boolean favorite) implements Entity<String> {
+
+	protected static final Pattern MARKS = Pattern.compile("\\p{M}");
+
+	public static String normalize(String string) {
+		return MARKS.matcher(Normalizer.normalize(string, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+	}
 
 	@Index
 	public String full() {
@@ -44,6 +53,12 @@ public record Contact(String id, Instant createdAt, String avatar, String first,
 		return !s.isEmpty() ? s : null;
 	}
 
+	@Index
+	public String tokens() {
+		var s = full();
+		return s != null ? normalize(s) : null;
+	}
+
 	public Contact withId(String id) {
 		return new Contact(id, createdAt, avatar, first, last, twitter, favorite);
 	}
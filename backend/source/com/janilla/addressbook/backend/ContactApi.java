@@ -26,57 +26,196 @@
  */
 package com.janilla.addressbook.backend;
 
+import java.io.BufferedWriter;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
 
 import com.janilla.backend.persistence.Persistence;
+import com.janilla.http.HttpRequest;
+import com.janilla.http.HttpResponse;
 import com.janilla.java.JavaReflect;
 import com.janilla.web.Bind;
 import com.janilla.web.Handle;
 import com.janilla.web.NotFoundException;
 
 @Handle(path = "/api/contacts")
+@Singleton
 public class ContactApi {
 
+	protected static final int CHUNK_SIZE = 100;
+
+	protected static boolean matches(String tokens, char[] query) {
+		var n = tokens.length();
+		for (var i = 0; i < n; i++) {
+			var j = 0;
+			for (; i < n && tokens.charAt(i) != ' '; i++)
+				if (j < query.length && tokens.charAt(i) == query[j])
+					j++;
+			if (j == query.length)
+				return true;
+		}
+		return false;
+	}
+
+	protected static boolean valid(ContactOperation operation) {
+		return operation.action() != null && switch (operation.action()) {
+		case "create" -> operation.contact() != null;
+		case "update" -> operation.id() != null && operation.contact() != null;
+		case "delete", "favorite" -> operation.id() != null;
+		default -> false;
+		};
+	}
+
+	protected final ContactCache contactCache;
+
+	protected final ContactGrams contactGrams;
+
+	protected final ContactIndex contactIndex;
+
+	protected final IdGenerator idGenerator;
+
 	protected final Persistence persistence;
 
-	public ContactApi(Persistence persistence) {
+	protected final QueryCache queryCache;
+
+	protected final Revision revision;
+
+	public ContactApi(ContactCache contactCache, ContactGrams contactGrams, ContactIndex contactIndex,
+			IdGenerator idGenerator, Persistence persistence, QueryCache queryCache, Revision revision) {
+		this.contactCache = contactCache;
+		this.contactGrams = contactGrams;
+		this.contactIndex = contactIndex;
+		this.idGenerator = idGenerator;
 		this.persistence = persistence;
+		this.queryCache = queryCache;
+		this.revision = revision;
 	}
 
 	@Handle(method = "GET")
-	public List<Contact> list(@Bind("query") String query) {
+	public void list(@Bind("query") String query, @Bind("order") String order, @Bind("favorite") Boolean favorite,
+			@Bind("limit") Integer limit, @Bind("cursor") String cursor, HttpRequest request, HttpResponse response)
+			throws IOException {
 //		IO.println("ContactApi.list, query=" + query);
-		var c = persistence.crud(Contact.class);
-		var q = query != null && !query.isEmpty() ? query.toLowerCase().toCharArray() : null;
-		return c.read(q != null ? c.filter("full", x -> Arrays.stream(((String) x).split(" ")).anyMatch(y -> {
-			var s = y.toLowerCase();
-			var i = -1;
-			for (var z : q) {
-				i = s.indexOf(z, i + 1);
-				if (i == -1)
-					return false;
+		var q = query != null && !query.isEmpty() ? Contact.normalize(query).toCharArray() : null;
+		var o = order != null && !order.isEmpty() ? ContactOrder.parse(order) : null;
+		var f = favorite != null && favorite;
+		var k = cursor != null && !cursor.isEmpty() ? ContactCursor.parse(cursor) : null;
+		var n = limit != null ? Math.max(limit, 1) : 0;
+		var ii = o != null ? list(q, o, f, k, n) : q != null ? search(q, f, k, n) : list(f, k);
+		if (n != 0)
+			ii = ii.limit(n + 1L);
+		var cc = read(ii, n != 0 ? Math.min(n + 1, CHUNK_SIZE) : CHUNK_SIZE);
+		if (n != 0) {
+			var l = cc.toList();
+			if (l.size() > n) {
+				l = l.subList(0, n);
+				var x = o != null ? ContactCursor.of(l.getLast(), o) : ContactCursor.of(l.getLast(), q != null);
+				response.setHeaderValue("x-next-cursor", x.toString());
+				response.setHeaderValue("access-control-expose-headers", "x-next-cursor");
 			}
-			return true;
-		})) : c.list());
+			cc = l.stream();
+		}
+
+		var a = request.getHeaderValue("accept");
+		var nd = a != null && a.contains("application/x-ndjson");
+		response.setStatus(200);
+		response.setHeaderValue("content-type", nd ? "application/x-ndjson" : "application/json");
+		var w = new BufferedWriter(new OutputStreamWriter(
+				Channels.newOutputStream((WritableByteChannel) response.getBody()), StandardCharsets.UTF_8));
+		var b = new CharArrayWriter();
+		if (!nd)
+			b.write('[');
+		var i = 0;
+		for (var xx = cc.iterator(); xx.hasNext(); i++) {
+			if (!nd && i != 0)
+				b.write(',');
+			ContactJson.write(xx.next(), b);
+			if (nd)
+				b.write('\n');
+			if ((i + 1) % CHUNK_SIZE == 0) {
+				b.writeTo(w);
+				w.flush();
+				b.reset();
+			}
+		}
+		if (!nd)
+			b.write(']');
+		b.writeTo(w);
+		w.flush();
 	}
 
 	@Handle(method = "POST")
 	public Contact create(Contact contact) {
-		var x = contact;
-		var l = 1L + Integer.MAX_VALUE + ThreadLocalRandom.current().nextLong(Long.MAX_VALUE - Integer.MAX_VALUE);
-		var s = Long.toString(l, 36);
-		s = s.length() > 7 ? s.substring(s.length() - 7, s.length()) : s;
-		x = x.withId(s).withCreatedAt(Instant.now());
-		return persistence.crud(Contact.class).create(x);
+		var x = persistence.database().perform(() -> insert(contact), true);
+		revision.increment();
+		return x;
+	}
+
+	protected Stream<String> list(boolean favorite, ContactCursor cursor) {
+		return favorite ? contactIndex.favorites(cursor) : contactIndex.ids(cursor);
+	}
+
+	protected Stream<String> search(char[] query, boolean favorite, ContactCursor cursor, int limit) {
+		return list(query, ContactIndex.FULL, favorite, cursor, limit);
+	}
+
+	protected Stream<String> list(char[] query, ContactOrder order, boolean favorite, ContactCursor cursor,
+			int limit) {
+		if (query != null) {
+			var ii = queryCache.get(new String(query) + '\0' + order + '\0' + favorite,
+					() -> ids(query, order, favorite, null, 0));
+			var i = ii != null && cursor != null ? ii.indexOf(cursor.id()) : -1;
+			if (ii != null && (cursor == null || i != -1))
+				return ii.subList(i + 1, ii.size()).stream();
+		}
+		return ids(query, order, favorite, cursor, limit);
+	}
+
+	protected Stream<String> ids(char[] query, ContactOrder order, boolean favorite, ContactCursor cursor,
+			int limit) {
+		var ii = query != null ? contactGrams.candidates(query) : null;
+		var jj = favorite ? contactIndex.favorites() : null;
+		if (ii == null)
+			return contactIndex.list(order, query, jj, cursor, limit);
+		if (jj != null)
+			ii.retainAll(jj);
+		return contactIndex.list(order, query, ii, cursor);
+	}
+
+	protected Stream<Contact> read(Stream<String> ids, int chunkSize) {
+		var c = persistence.crud(Contact.class);
+		var ii = ids.iterator();
+		return Stream.generate(() -> {
+			var l = new ArrayList<String>(chunkSize);
+			while (l.size() < chunkSize && ii.hasNext())
+				l.add(ii.next());
+			return l;
+		}).takeWhile(x -> !x.isEmpty()).flatMap(x -> c.read(x).stream()).filter(Objects::nonNull);
 	}
 
 	@Handle(method = "GET", path = "([^/]+)")
+	public void read(String id, HttpResponse response) throws IOException {
+		var x = read(id);
+		response.setStatus(200);
+		response.setHeaderValue("content-type", "application/json");
+		var w = new BufferedWriter(new OutputStreamWriter(
+				Channels.newOutputStream((WritableByteChannel) response.getBody()), StandardCharsets.UTF_8));
+		ContactJson.write(x, w);
+		w.flush();
+	}
+
 	public Contact read(String id) {
-		var x = persistence.crud(Contact.class).read(id);
+		var x = contactCache.get(id, persistence.crud(Contact.class)::read);
 		if (x == null)
 			throw new NotFoundException("contact " + id);
 		return x;
@@ -84,26 +223,80 @@ public class ContactApi {
 
 	@Handle(method = "PUT", path = "([^/]+)")
 	public Contact update(String id, Contact contact) {
-		var x = persistence.crud(Contact.class).update(id,
-				y -> JavaReflect.copy(contact, y, z -> !Set.of("id", "createdAt").contains(z)));
+		var x = persistence.database().perform(() -> modify(id, contact), true);
 		if (x == null)
 			throw new NotFoundException("contact " + id);
+		contactCache.invalidate(id);
+		revision.increment();
 		return x;
 	}
 
 	@Handle(method = "DELETE", path = "([^/]+)")
 	public Contact delete(String id) {
-		var x = persistence.crud(Contact.class).delete(id);
+		var x = persistence.database().perform(() -> remove(id), true);
 		if (x == null)
 			throw new NotFoundException("contact " + id);
+		contactCache.invalidate(id);
+		revision.increment();
 		return x;
 	}
 
 	@Handle(method = "PUT", path = "([^/]+)/favorite")
 	public Contact favorite(String id, Boolean value) {
-		var x = persistence.crud(Contact.class).update(id, y -> y.withFavorite(value));
+		var x = mark(id, value);
 		if (x == null)
 			throw new NotFoundException("contact " + id);
+		contactCache.invalidate(id);
+		revision.increment();
+		return x;
+	}
+
+	@Handle(method = "POST", path = "batch")
+	public List<ContactOperationResult> batch(List<ContactOperation> operations) {
+		var rr = persistence.database().perform(() -> operations.stream().map(x -> {
+			if (!valid(x))
+				return new ContactOperationResult(400, null, "operation " + x);
+			var c = switch (x.action()) {
+			case "create" -> insert(x.contact());
+			case "update" -> modify(x.id(), x.contact());
+			case "delete" -> remove(x.id());
+			default -> mark(x.id(), x.favorite());
+			};
+			return c != null ? new ContactOperationResult(200, c, null)
+					: new ContactOperationResult(404, null, "contact " + x.id());
+		}).toList(), true);
+		for (var x : operations)
+			if (x.id() != null)
+				contactCache.invalidate(x.id());
+		revision.increment();
+		return rr;
+	}
+
+	protected Contact insert(Contact contact) {
+		var c = persistence.crud(Contact.class);
+		var x = c.create(contact.withId(idGenerator.next(y -> c.read(y) != null)).withCreatedAt(Instant.now()));
+		contactGrams.add(x);
 		return x;
 	}
+
+	protected Contact modify(String id, Contact contact) {
+		var c = persistence.crud(Contact.class);
+		var x = c.read(id);
+		if (x == null)
+			return null;
+		var y = c.update(id, z -> JavaReflect.copy(contact, z, w -> !Set.of("id", "createdAt").contains(w)));
+		contactGrams.update(x, y);
+		return y;
+	}
+
+	protected Contact remove(String id) {
+		var x = persistence.crud(Contact.class).delete(id);
+		if (x != null)
+			contactGrams.remove(x);
+		return x;
+	}
+
+	protected Contact mark(String id, Boolean favorite) {
+		return persistence.crud(Contact.class).update(id, y -> y.withFavorite(favorite));
+	}
 }
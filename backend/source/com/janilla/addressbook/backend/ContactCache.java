@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public class ContactCache {
+
+	protected static long weight(Contact contact) {
+		return 64 + 2 * Stream.of(contact.id(), contact.avatar(), contact.first(), contact.last(), contact.twitter())
+				.mapToLong(x -> x != null ? 40 + x.length() : 0).sum();
+	}
+
+	protected final LongAdder evictions = new LongAdder();
+
+	protected final LongAdder hits = new LongAdder();
+
+	protected final AtomicLong invalidations = new AtomicLong();
+
+	protected final Map<String, Contact> map = new LinkedHashMap<>(16, 0.75f, true);
+
+	protected final int maximumSize;
+
+	protected final long maximumWeight;
+
+	protected final LongAdder misses = new LongAdder();
+
+	protected long weight;
+
+	public ContactCache(Properties configuration) {
+		maximumSize = Integer.parseInt(configuration.getProperty("address-book.cache.contact.size"));
+		maximumWeight = Long.parseLong(configuration.getProperty("address-book.cache.contact.weight"));
+	}
+
+	public Contact get(String id, Function<String, Contact> loader) {
+		synchronized (map) {
+			var x = map.get(id);
+			if (x != null) {
+				hits.increment();
+				return x;
+			}
+		}
+		misses.increment();
+		var i = invalidations.get();
+		var x = loader.apply(id);
+		if (x != null && maximumSize > 0)
+			synchronized (map) {
+				if (invalidations.get() == i)
+					put(x);
+			}
+		return x;
+	}
+
+	public void invalidate(String id) {
+		synchronized (map) {
+			invalidations.incrementAndGet();
+			var x = map.remove(id);
+			if (x != null)
+				weight -= weight(x);
+		}
+	}
+
+	public void clear() {
+		synchronized (map) {
+			invalidations.incrementAndGet();
+			map.clear();
+			weight = 0;
+		}
+	}
+
+	public long evictions() {
+		return evictions.sum();
+	}
+
+	public long hits() {
+		return hits.sum();
+	}
+
+	public long misses() {
+		return misses.sum();
+	}
+
+	public int size() {
+		synchronized (map) {
+			return map.size();
+		}
+	}
+
+	public long weight() {
+		synchronized (map) {
+			return weight;
+		}
+	}
+
+	protected void put(Contact contact) {
+		var x = map.put(contact.id(), contact);
+		if (x != null)
+			weight -= weight(x);
+		weight += weight(contact);
+		for (var ee = map.entrySet().iterator(); ee.hasNext() && (map.size() > maximumSize || weight > maximumWeight);) {
+			var e = ee.next();
+			ee.remove();
+			weight -= weight(e.getValue());
+			evictions.increment();
+		}
+	}
+}
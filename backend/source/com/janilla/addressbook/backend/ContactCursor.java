@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record ContactCursor(String key, String id) {
+
+	public static ContactCursor of(Contact contact, boolean search) {
+		return new ContactCursor(search ? contact.full() : "", contact.id());
+	}
+
+	public static ContactCursor of(Contact contact, ContactOrder order) {
+		var k = order.key(contact);
+		return new ContactCursor(k != null ? k : "", contact.id());
+	}
+
+	public static ContactCursor parse(String string) {
+		String s;
+		try {
+			s = new String(Base64.getUrlDecoder().decode(string), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidCursorException(string);
+		}
+		var i = s.indexOf('\0');
+		if (i == -1)
+			throw new InvalidCursorException(string);
+		return new ContactCursor(s.substring(0, i), s.substring(i + 1));
+	}
+
+	@Override
+	public String toString() {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((key + '\0' + id).getBytes(StandardCharsets.UTF_8));
+	}
+}
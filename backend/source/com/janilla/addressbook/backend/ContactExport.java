@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import com.janilla.backend.persistence.Persistence;
+
+public class ContactExport {
+
+	protected static final int CHUNK_SIZE = 500;
+
+	protected static void writeCsv(String string, Writer writer) throws IOException {
+		if (string == null)
+			return;
+		if (string.chars().noneMatch(x -> x == '"' || x == ',' || x == '\n' || x == '\r')) {
+			writer.write(string);
+			return;
+		}
+		writer.write('"');
+		writer.write(string.replace("\"", "\"\""));
+		writer.write('"');
+	}
+
+	protected final ContactIndex contactIndex;
+
+	protected final Persistence persistence;
+
+	public ContactExport(ContactIndex contactIndex, Persistence persistence) {
+		this.contactIndex = contactIndex;
+		this.persistence = persistence;
+	}
+
+	public long run(String format, String after, Writer writer) throws IOException {
+		var csv = format.equals("csv");
+		if (csv)
+			writer.write("id,createdAt,avatar,first,last,twitter,favorite\r\n");
+		var c = persistence.crud(Contact.class);
+		var ii = contactIndex.ids(after != null ? new ContactCursor("", after) : null).iterator();
+		var n = 0L;
+		while (ii.hasNext()) {
+			var jj = new ArrayList<String>(CHUNK_SIZE);
+			while (jj.size() < CHUNK_SIZE && ii.hasNext())
+				jj.add(ii.next());
+			for (var x : c.read(jj)) {
+				if (x == null)
+					continue;
+				if (csv) {
+					var ss = Stream.of(x.id(), Objects.toString(x.createdAt(), null), x.avatar(), x.first(), x.last(),
+							x.twitter(), Objects.toString(x.favorite(), null)).iterator();
+					while (ss.hasNext()) {
+						writeCsv(ss.next(), writer);
+						writer.write(ss.hasNext() ? "," : "\r\n");
+					}
+				} else {
+					ContactJson.write(x, false, writer);
+					writer.write('\n');
+				}
+				n++;
+			}
+			writer.flush();
+		}
+		return n;
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+
+public class ContactGenerator {
+
+	protected static final List<String> FIRST_NAMES = List.of("Ada", "Alejandro", "Amélie", "Ana", "Andrea", "Björn",
+			"Carlos", "Chen", "Chiara", "Daniel", "Diego", "Elena", "Emma", "Fatima", "François", "Giulia", "Hana",
+			"Hiroshi", "Ingrid", "Isabel", "Jakub", "James", "José", "Kofi", "Lars", "Laura", "Léa", "Liam", "Lucía",
+			"Mara", "María", "Mateo", "Mohammed", "Nadia", "Noah", "Olivia", "Omar", "Paolo", "Priya", "Rafael",
+			"Renée", "Sara", "Søren", "Sofia", "Tomás", "Valentina", "Wei", "Yuki", "Zoë", "Zoltán");
+
+	protected static final List<String> LAST_NAMES = List.of("Álvarez", "Andersen", "Bianchi", "Brown", "Castillo",
+			"Chen", "Costa", "Dubois", "Fernández", "Fischer", "García", "Gómez", "Hansen", "Hernández", "Ito",
+			"Jansen", "Johnson", "Kim", "Kowalski", "Kumar", "Larsen", "López", "Martin", "Martínez", "Müller",
+			"Nakamura", "Nguyen", "Novak", "O'Brien", "Okafor", "Papadopoulos", "Pérez", "Petrov", "Rossi", "Sánchez",
+			"Santos", "Schmidt", "Schivo", "Silva", "Smith", "Suzuki", "Tanaka", "Van der Berg", "Wagner", "Wang",
+			"Weber", "Williams", "Wójcik", "Yilmaz", "Zhang");
+
+	protected final List<String> avatars;
+
+	protected final Instant epoch;
+
+	protected final Random random;
+
+	public ContactGenerator(long seed, List<String> avatars) {
+		this.avatars = avatars;
+		random = new Random(seed);
+		epoch = Instant.parse("2020-01-01T00:00:00Z").plus(Duration.ofDays(random.nextInt(365)));
+	}
+
+	public Contact next(long index) {
+		var f = random.nextInt(20) != 0 ? FIRST_NAMES.get(random.nextInt(FIRST_NAMES.size())) : null;
+		var l = random.nextInt(20) != 0 ? LAST_NAMES.get(random.nextInt(LAST_NAMES.size())) : null;
+		var a = !avatars.isEmpty() && random.nextInt(4) != 0 ? avatars.get(random.nextInt(avatars.size())) : null;
+		var t = f != null && random.nextInt(3) == 0
+				? "@" + Contact.normalize(f) + (l != null ? Contact.normalize(l).replaceAll("[^a-z]", "") : "")
+						+ random.nextInt(100)
+				: null;
+		var s = Long.toString(index, 36);
+		var i = "0".repeat(Math.max(7 - s.length(), 0)) + s;
+		return new Contact(i, epoch.plusSeconds(index * 60 + random.nextInt(60)), a, f, l, t,
+				random.nextInt(100) == 0 ? Boolean.TRUE : null);
+	}
+}
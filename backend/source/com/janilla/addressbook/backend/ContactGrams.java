@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.janilla.backend.persistence.Persistence;
+
+public class ContactGrams {
+
+	public static final int GRAM_LENGTH = 2;
+
+	public static final int VERSION = 1;
+
+	protected static final int CHUNK_SIZE = 1000;
+
+	public static Set<String> grams(Contact contact) {
+		var s = contact.tokens();
+		if (s == null)
+			return Set.of();
+		var gg = new LinkedHashSet<String>();
+		for (var t : s.split(" ")) {
+			var n = t.length();
+			for (var i = 0; i < n - 1; i++)
+				for (var j = i + 1; j < n; j++)
+					gg.add(new String(new char[] { t.charAt(i), t.charAt(j) }));
+		}
+		return gg;
+	}
+
+	protected final int maximumSize;
+
+	protected final Persistence persistence;
+
+	protected final Map<String, Integer> sizes = new ConcurrentHashMap<>();
+
+	public ContactGrams(Properties configuration, Persistence persistence) {
+		maximumSize = Integer.parseInt(configuration.getProperty("address-book.search.grams.maximum"));
+		this.persistence = persistence;
+	}
+
+	public void ensure() {
+		var v = persistence.database().perform(() -> persistence.crud(IndexVersion.class).read("ContactGram"), false);
+		if (v != null && v.version() == VERSION)
+			return;
+		var t = System.nanoTime();
+		var g = persistence.crud(ContactGram.class);
+		var gg = new HashSet<Object>();
+		persistence.database().perform(() -> g.filter("gram", x -> gg.add(x) && false), false);
+		for (var x : gg) {
+			var kk = persistence.database().perform(() -> g.filter("gram", x), false);
+			for (var i = 0; i < kk.size(); i += CHUNK_SIZE) {
+				var jj = kk.subList(i, Math.min(i + CHUNK_SIZE, kk.size()));
+				persistence.database().perform(() -> {
+					for (var j : jj)
+						g.delete(j);
+					return null;
+				}, true);
+			}
+		}
+		sizes.clear();
+		var c = persistence.crud(Contact.class);
+		var ii = c.list();
+		for (var i = 0; i < ii.size(); i += CHUNK_SIZE) {
+			var jj = ii.subList(i, Math.min(i + CHUNK_SIZE, ii.size()));
+			persistence.database().perform(() -> {
+				for (var x : c.read(jj))
+					if (x != null)
+						add(x);
+				return null;
+			}, true);
+		}
+		persistence.database().perform(() -> {
+			var x = persistence.crud(IndexVersion.class);
+			return v != null ? x.update(v.id(), _ -> new IndexVersion(v.id(), VERSION))
+					: x.create(new IndexVersion("ContactGram", VERSION));
+		}, true);
+		if (!ii.isEmpty())
+			IO.println("Indexed grams of " + ii.size() + " contacts (" + (System.nanoTime() - t) / 1_000_000 + " ms)");
+	}
+
+	public void add(Contact contact) {
+		var c = persistence.crud(ContactGram.class);
+		for (var g : grams(contact)) {
+			c.create(new ContactGram(g + contact.id(), g));
+			sizes.computeIfPresent(g, (_, x) -> x + 1);
+		}
+	}
+
+	public void update(Contact contact1, Contact contact2) {
+		var gg1 = grams(contact1);
+		var gg2 = grams(contact2);
+		if (gg1.equals(gg2))
+			return;
+		var c = persistence.crud(ContactGram.class);
+		for (var g : gg1)
+			if (!gg2.contains(g)) {
+				c.delete(g + contact1.id());
+				sizes.computeIfPresent(g, (_, x) -> x - 1);
+			}
+		for (var g : gg2)
+			if (!gg1.contains(g)) {
+				c.create(new ContactGram(g + contact2.id(), g));
+				sizes.computeIfPresent(g, (_, x) -> x + 1);
+			}
+	}
+
+	public void remove(Contact contact) {
+		var c = persistence.crud(ContactGram.class);
+		for (var g : grams(contact)) {
+			c.delete(g + contact.id());
+			sizes.computeIfPresent(g, (_, x) -> x - 1);
+		}
+	}
+
+	public Set<String> candidates(char[] query) {
+		if (query.length < GRAM_LENGTH)
+			return null;
+		var gg = new LinkedHashSet<String>();
+		for (var i = 0; i < query.length - 1; i++)
+			gg.add(new String(query, i, GRAM_LENGTH));
+		var c = persistence.crud(ContactGram.class);
+		Set<String> ii = null;
+		for (var g : gg.stream().sorted(Comparator.comparingInt(x -> sizes.getOrDefault(x, Integer.MAX_VALUE)))
+				.toList()) {
+			var n = sizes.get(g);
+			if (n != null && n > maximumSize)
+				continue;
+			var kk = c.filter("gram", g);
+			sizes.put(g, kk.size());
+			if (kk.size() > maximumSize)
+				continue;
+			var jj = new HashSet<String>();
+			for (var x : kk)
+				jj.add(x.substring(GRAM_LENGTH));
+			if (ii == null)
+				ii = jj;
+			else
+				ii.retainAll(jj);
+			if (ii.isEmpty())
+				break;
+		}
+		return ii;
+	}
+}
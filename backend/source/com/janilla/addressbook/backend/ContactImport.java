@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.LongConsumer;
+
+import com.janilla.backend.persistence.Persistence;
+import com.janilla.java.Converter;
+import com.janilla.json.Json;
+
+public class ContactImport {
+
+	protected static final int BUFFER_SIZE = 8192;
+
+	protected final int batchSize;
+
+	protected final ContactCache contactCache;
+
+	protected final ContactGrams contactGrams;
+
+	protected final Converter converter;
+
+	protected final IdGenerator idGenerator;
+
+	protected final int maximumLine;
+
+	protected final Persistence persistence;
+
+	protected final Revision revision;
+
+	public ContactImport(Properties configuration, ContactCache contactCache, ContactGrams contactGrams,
+			Converter converter, IdGenerator idGenerator, Persistence persistence, Revision revision) {
+		batchSize = Integer.parseInt(configuration.getProperty("address-book.import.batch-size"));
+		this.contactCache = contactCache;
+		this.contactGrams = contactGrams;
+		this.converter = converter;
+		this.idGenerator = idGenerator;
+		maximumLine = Integer.parseInt(configuration.getProperty("address-book.import.maximum-line"));
+		this.persistence = persistence;
+		this.revision = revision;
+	}
+
+	public long run(InputStream input, LongConsumer progress) throws IOException {
+		var bb = new byte[BUFFER_SIZE];
+		var b = new ByteArrayOutputStream();
+		var n = 0L;
+		var k = 0L;
+		var o = 0L;
+		var l = 1L;
+		var cc = new ArrayList<Contact>(batchSize);
+		for (int i = 0, m = 0;;) {
+			if (i == m) {
+				m = input.read(bb);
+				i = 0;
+			}
+			var j = i;
+			while (j < m && bb[j] != '\n')
+				j++;
+			if (b.size() + j - i > maximumLine)
+				throw new InvalidImportException(l, o, n, k,
+						new IllegalArgumentException("line longer than " + maximumLine + " bytes"));
+			b.write(bb, i, j - i);
+			if (j == m && m != -1) {
+				i = j;
+				continue;
+			}
+			if (m != -1 || b.size() != 0) {
+				var s = b.toString(StandardCharsets.UTF_8);
+				if (!s.isBlank())
+					try {
+						cc.add((Contact) converter.convert(Json.parse(s), Contact.class));
+					} catch (RuntimeException e) {
+						throw new InvalidImportException(l, o, n, k, e);
+					}
+				o += b.size() + (m != -1 ? 1 : 0);
+				l++;
+				b.reset();
+			}
+			if (cc.size() == batchSize || m == -1 && !cc.isEmpty()) {
+				n += write(cc);
+				cc.clear();
+				k = o;
+				if (progress != null)
+					progress.accept(n);
+			}
+			if (m == -1)
+				break;
+			i = j + 1;
+		}
+		return n;
+	}
+
+	protected int write(List<Contact> contacts) {
+		var n = persistence.database().perform(() -> {
+			var c = persistence.crud(Contact.class);
+			for (var x : contacts) {
+				if (x.createdAt() == null)
+					x = x.withCreatedAt(Instant.now());
+				var y = x.id() != null ? c.read(x.id()) : null;
+				if (y != null) {
+					var z = x;
+					x = c.update(y.id(), _ -> z);
+					contactGrams.update(y, x);
+				} else {
+					x = c.create(x.id() != null ? x : x.withId(idGenerator.next(z -> c.read(z) != null)));
+					contactGrams.add(x);
+				}
+			}
+			return contacts.size();
+		}, true);
+		for (var x : contacts)
+			if (x.id() != null)
+				contactCache.invalidate(x.id());
+		revision.increment();
+		return n;
+	}
+}
@@ -0,0 +1,222 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.janilla.backend.persistence.Persistence;
+
+public class ContactIndex {
+
+	public static final ContactOrder FULL = new ContactOrder("full", false);
+
+	public static final Comparator<ContactCursor> ORDER = Comparator.comparing(ContactCursor::key)
+			.thenComparing(ContactCursor::id);
+
+	protected static final int CHUNK_SIZE = 1000;
+
+	protected static final DateTimeFormatter INSTANT = DateTimeFormatter
+			.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'").withZone(ZoneOffset.UTC);
+
+	protected static final int WALK_SIZE = 10000;
+
+	protected static Comparator<ContactCursor> comparator(ContactOrder order) {
+		return (x, y) -> {
+			if (x.key() == null || y.key() == null) {
+				var i = Boolean.compare(x.key() == null, y.key() == null);
+				return i != 0 ? i : x.id().compareTo(y.id());
+			}
+			var i = ORDER.compare(x, y);
+			return order.descending() ? -i : i;
+		};
+	}
+
+	protected static boolean matches(String key, char[] query) {
+		var n = key.length();
+		for (var i = 0; i < n; i++)
+			if (key.charAt(i) >= 0x80)
+				return ContactApi.matches(Contact.normalize(key), query);
+		for (var i = 0; i < n; i++) {
+			var j = 0;
+			for (; i < n && key.charAt(i) != ' '; i++)
+				if (j < query.length && Character.toLowerCase(key.charAt(i)) == query[j])
+					j++;
+			if (j == query.length)
+				return true;
+		}
+		return false;
+	}
+
+	protected final Persistence persistence;
+
+	public ContactIndex(Persistence persistence) {
+		this.persistence = persistence;
+	}
+
+	public Stream<String> ids(ContactCursor cursor) {
+		return persistence.crud(Contact.class).list().stream()
+				.filter(x -> cursor == null || x.compareTo(cursor.id()) > 0).sorted();
+	}
+
+	public Set<String> favorites() {
+		return new HashSet<>(persistence.crud(Contact.class).filter("favorite", true));
+	}
+
+	public Stream<String> favorites(ContactCursor cursor) {
+		return persistence.crud(Contact.class).filter("favorite", true).stream()
+				.filter(x -> cursor == null || x.compareTo(cursor.id()) > 0).sorted();
+	}
+
+	public Stream<String> list(ContactOrder order, char[] query, Set<String> ids, ContactCursor cursor, int limit) {
+		var c = persistence.crud(Contact.class);
+		var f = order.index().equals("full");
+		var mm = query != null && !f ? new HashSet<>(c.filter("tokens", x -> ContactApi.matches((String) x, query)))
+				: null;
+		var k = cursor != null ? key(order, cursor) : null;
+		Stream<String> ii;
+		if (k != null && k.key() == null)
+			ii = blanks(order, k.id());
+		else {
+			var q = f ? query : null;
+			var r = keys(order, q, k != null ? k.key() : null, true, limit != 0 ? limit + 1 : WALK_SIZE);
+			var kk = Stream.iterate(r, x -> !x.keys().isEmpty(), x -> x.last() ? new Round(new TreeMap<>(), true)
+					: keys(order, q, x.keys().lastKey(), false, WALK_SIZE)).flatMap(x -> x.keys().entrySet().stream());
+			ii = kk.flatMap(x -> {
+				var jj = c.filter(order.index(), x.getValue()).stream();
+				if (k != null && x.getKey().equals(k.key()))
+					jj = jj.filter(y -> order.descending() ? y.compareTo(k.id()) < 0 : y.compareTo(k.id()) > 0);
+				return jj.sorted(order.descending() ? Comparator.reverseOrder() : Comparator.naturalOrder());
+			});
+			if (q == null)
+				ii = Stream.concat(ii,
+						Stream.<Supplier<Stream<String>>>of(() -> blanks(order, null)).flatMap(Supplier::get));
+		}
+		if (mm != null)
+			ii = ii.filter(mm::contains);
+		return ids != null ? ii.filter(ids::contains) : ii;
+	}
+
+	public Stream<String> list(ContactOrder order, char[] query, Collection<String> ids, ContactCursor cursor) {
+		var c = comparator(order);
+		var k = cursor != null ? key(order, cursor) : null;
+		var kk = new ArrayList<ContactCursor>();
+		read(ids.stream()).forEach(x -> {
+			if (query != null && (x.tokens() == null || !ContactApi.matches(x.tokens(), query)))
+				return;
+			var y = new ContactCursor(key(order, x), x.id());
+			if (k == null || c.compare(y, k) > 0)
+				kk.add(y);
+		});
+		kk.sort(c);
+		return kk.stream().map(ContactCursor::id);
+	}
+
+	protected static String blank(String string) {
+		return string != null && !string.isEmpty() ? string : null;
+	}
+
+	protected static String key(Object key) {
+		return key instanceof Instant x ? INSTANT.format(x) : key != null ? blank(key.toString()) : null;
+	}
+
+	protected ContactCursor key(ContactOrder order, ContactCursor cursor) {
+		var k = blank(cursor.key());
+		if (k != null && order.index().equals("createdAt"))
+			try {
+				k = INSTANT.format(Instant.parse(k));
+			} catch (DateTimeParseException e) {
+				throw new InvalidCursorException(cursor.toString());
+			}
+		return new ContactCursor(k, cursor.id());
+	}
+
+	protected String key(ContactOrder order, Contact contact) {
+		return key(switch (order.index()) {
+		case "createdAt" -> contact.createdAt();
+		case "first" -> contact.first();
+		case "full" -> contact.full();
+		default -> contact.last();
+		});
+	}
+
+	protected Round keys(ContactOrder order, char[] query, String start, boolean inclusive, int size) {
+		var c = order.descending() ? Comparator.<String>reverseOrder() : Comparator.<String>naturalOrder();
+		var kk = new TreeMap<String, Object>(c);
+		persistence.crud(Contact.class).filter(order.index(), x -> {
+			var k = key(x);
+			if (k == null || kk.containsKey(k))
+				return false;
+			if (start != null) {
+				var i = c.compare(k, start);
+				if (i < 0 || (i == 0 && !inclusive))
+					return false;
+			}
+			if (kk.size() == size && c.compare(k, kk.lastKey()) > 0)
+				return false;
+			if (query != null && !matches(k, query))
+				return false;
+			kk.put(k, x);
+			if (kk.size() > size)
+				kk.pollLastEntry();
+			return false;
+		});
+		return new Round(kk, kk.size() < size);
+	}
+
+	protected Stream<String> blanks(ContactOrder order, String after) {
+		var c = persistence.crud(Contact.class);
+		var ii = new HashSet<>(c.filter(order.index(), x -> key(x) != null));
+		return c.list().stream().filter(x -> !ii.contains(x) && (after == null || x.compareTo(after) > 0)).sorted();
+	}
+
+	protected Stream<Contact> read(Stream<String> ids) {
+		var c = persistence.crud(Contact.class);
+		var ii = ids.iterator();
+		return Stream.generate(() -> {
+			var l = new ArrayList<String>(CHUNK_SIZE);
+			while (l.size() < CHUNK_SIZE && ii.hasNext())
+				l.add(ii.next());
+			return l;
+		}).takeWhile(x -> !x.isEmpty()).flatMap(x -> c.read(x).stream()).filter(Objects::nonNull);
+	}
+
+	protected record Round(NavigableMap<String, Object> keys, boolean last) {
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public class ContactJson {
+
+	public static void write(Contact contact, Writer writer) throws IOException {
+		write(contact, true, writer);
+	}
+
+	public static void write(Contact contact, boolean full, Writer writer) throws IOException {
+		writer.write("{\"id\":");
+		write(contact.id(), writer);
+		writer.write(",\"createdAt\":");
+		write(contact.createdAt() != null ? contact.createdAt().toString() : null, writer);
+		writer.write(",\"avatar\":");
+		write(contact.avatar(), writer);
+		writer.write(",\"first\":");
+		write(contact.first(), writer);
+		writer.write(",\"last\":");
+		write(contact.last(), writer);
+		writer.write(",\"twitter\":");
+		write(contact.twitter(), writer);
+		writer.write(",\"favorite\":");
+		writer.write(String.valueOf(contact.favorite()));
+		if (full) {
+			writer.write(",\"full\":");
+			write(contact.full(), writer);
+		}
+		writer.write('}');
+	}
+
+	protected static void write(String string, Writer writer) throws IOException {
+		if (string == null) {
+			writer.write("null");
+			return;
+		}
+		writer.write('"');
+		for (var i = 0; i < string.length(); i++) {
+			var c = string.charAt(i);
+			switch (c) {
+			case '"', '\\' -> {
+				writer.write('\\');
+				writer.write(c);
+			}
+			case '\n' -> writer.write("\\n");
+			case '\r' -> writer.write("\\r");
+			case '\t' -> writer.write("\\t");
+			default -> {
+				if (c < 0x20)
+					writer.write(String.format("\\u%04x", (int) c));
+				else
+					writer.write(c);
+			}
+			}
+		}
+		writer.write('"');
+	}
+}
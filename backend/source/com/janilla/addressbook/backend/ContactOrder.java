@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.util.Set;
+
+public record ContactOrder(String index, boolean descending) {
+
+	protected static final Set<String> INDEXES = Set.of("createdAt", "first", "last");
+
+	public static ContactOrder parse(String string) {
+		var d = string.startsWith("-");
+		var i = d ? string.substring(1) : string;
+		if (!INDEXES.contains(i))
+			throw new InvalidOrderException(string);
+		return new ContactOrder(i, d);
+	}
+
+	public String key(Contact contact) {
+		var x = switch (index) {
+		case "createdAt" -> contact.createdAt();
+		case "first" -> contact.first();
+		default -> contact.last();
+		};
+		var s = x != null ? x.toString() : null;
+		return s != null && !s.isEmpty() ? s : null;
+	}
+
+	@Override
+	public String toString() {
+		return descending ? "-" + index : index;
+	}
+}
@@ -26,35 +26,32 @@
  */
 package com.janilla.addressbook.backend;
 
-import java.util.Properties;
-import java.util.stream.Collectors;
-
 import com.janilla.http.HttpRequest;
 import com.janilla.http.HttpResponse;
 import com.janilla.web.Handle;
-import com.janilla.web.InvocationResolver;
 
+@Singleton
 public class Cors {
 
-	protected final Properties configuration;
+	protected final Routes routes;
 
-	protected final InvocationResolver invocationResolver;
+	protected final SettingsWatcher settingsWatcher;
 
-	public Cors(Properties configuration, InvocationResolver invocationResolver) {
-		this.configuration = configuration;
-		this.invocationResolver = invocationResolver;
+	public Cors(Routes routes, SettingsWatcher settingsWatcher) {
+		this.routes = routes;
+		this.settingsWatcher = settingsWatcher;
 	}
 
 	@Handle(method = "OPTIONS", path = "/api/(.*)")
 	public void allow(HttpRequest request, HttpResponse response) {
-		var o = configuration.getProperty("address-book.api.cors.origin");
-		var m = invocationResolver.groups(request.getPath()).flatMap(x -> x.methods().keySet().stream()).toList();
-		var h = configuration.getProperty("address-book.api.cors.headers");
+		var s = settingsWatcher.get();
 
 		response.setStatus(204);
-		response.setHeaderValue("access-control-allow-origin", o);
-		response.setHeaderValue("access-control-allow-methods",
-				m.contains(null) ? "*" : m.stream().collect(Collectors.joining(", ")));
-		response.setHeaderValue("access-control-allow-headers", h);
+		if (s.corsOrigin() != null)
+			response.setHeaderValue("access-control-allow-origin", s.corsOrigin());
+		response.setHeaderValue("access-control-allow-methods", routes.allowedMethods(request.getPath()));
+		response.setHeaderValue("access-control-allow-headers", s.corsHeaders());
+		if (s.corsMaxAge() > 0)
+			response.setHeaderValue("access-control-max-age", String.valueOf(s.corsMaxAge()));
 	}
 }
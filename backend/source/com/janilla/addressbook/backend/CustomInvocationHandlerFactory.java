@@ -26,8 +26,6 @@
  */
 package com.janilla.addressbook.backend;
 
-import java.util.Properties;
-
 import com.janilla.http.HttpExchange;
 import com.janilla.http.HttpHandlerFactory;
 import com.janilla.ioc.DiFactory;
@@ -39,35 +37,64 @@ import com.janilla.web.RenderableFactory;
 
 public class CustomInvocationHandlerFactory extends InvocationHandlerFactory {
 
-	protected final Properties configuration;
+	protected final Metrics metrics;
+
+	protected final Revision revision;
+
+	protected final SettingsWatcher settingsWatcher;
 
 	public CustomInvocationHandlerFactory(InvocationResolver invocationResolver, RenderableFactory renderableFactory,
-			HttpHandlerFactory rootFactory, DiFactory diFactory, Properties configuration) {
+			HttpHandlerFactory rootFactory, DiFactory diFactory, Metrics metrics, Revision revision,
+			SettingsWatcher settingsWatcher) {
 		super(invocationResolver, renderableFactory, rootFactory, diFactory);
-		this.configuration = configuration;
+		this.metrics = metrics;
+		this.revision = revision;
+		this.settingsWatcher = settingsWatcher;
 	}
 
 	@Override
 	protected boolean handle(Invocation invocation, HttpExchange exchange) {
 		var rq = exchange.request();
 		var rs = exchange.response();
+		var r = metrics.route(rq.getMethod(), invocation.invocable().method());
+		var t = r.start();
+		var e = true;
+		try {
+			var s = settingsWatcher.get();
+			if (s.liveDemo()) {
+				if (!rq.getMethod().equals("GET"))
+					throw new HandleException(new MethodBlockedException());
+			}
 
-		if (Boolean.parseBoolean(configuration.getProperty("address-book.live-demo"))) {
-			if (!rq.getMethod().equals("GET"))
-				throw new HandleException(new MethodBlockedException());
-		}
+			if (s.corsOrigin() != null)
+				rs.setHeaderValue("access-control-allow-origin", s.corsOrigin());
 
-		var o = configuration.getProperty("address-book.api.cors.origin");
-		if (o != null && !o.isEmpty())
-			rs.setHeaderValue("access-control-allow-origin", o);
+			if (rq.getMethod().equals("GET") && rq.getPath().startsWith("/api/contacts")) {
+				var a = rq.getHeaderValue("accept");
+				var g = revision.etag(a != null && a.contains("application/x-ndjson") ? "nd" : null);
+				rs.setHeaderValue("cache-control", "no-cache");
+				rs.setHeaderValue("etag", g);
+				rs.setHeaderValue("vary", "accept");
+				var n = rq.getHeaderValue("if-none-match");
+				if (n != null && Revision.matches(n, g)) {
+					rs.setStatus(304);
+					e = false;
+					return true;
+				}
+			}
 
-//		if (rq.getPath().startsWith("/api/"))
-//			try {
-//				TimeUnit.SECONDS.sleep(1);
-//			} catch (InterruptedException e) {
-//				e.printStackTrace();
-//			}
+//			if (rq.getPath().startsWith("/api/"))
+//				try {
+//					TimeUnit.SECONDS.sleep(1);
+//				} catch (InterruptedException e) {
+//					e.printStackTrace();
+//				}
 
-		return super.handle(invocation, exchange);
+			var x = super.handle(invocation, exchange);
+			e = false;
+			return x;
+		} finally {
+			r.stop(t, e);
+		}
 	}
 }
@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.janilla.web.Invocable;
+import com.janilla.web.InvocationResolver;
+
+public class CustomInvocationResolver extends InvocationResolver {
+
+	protected final InvocationResolver[] resolvers;
+
+	protected final Map<BitSet, List<InvocationResolver>> resolversByMask = new ConcurrentHashMap<>();
+
+	protected final Routes routes;
+
+	public CustomInvocationResolver(List<Invocable> invocables, Function<Class<?>, Object> instanceResolver,
+			Routes routes) {
+		super(invocables, instanceResolver);
+		this.routes = routes;
+		var ii = invocables.stream().collect(
+				Collectors.groupingBy(x -> Routes.template(x.method()), LinkedHashMap::new, Collectors.toList()));
+		var rr = new HashMap<String, InvocationResolver>();
+		resolvers = routes.routes().stream()
+				.map(x -> rr.computeIfAbsent(x.template(), y -> new InvocationResolver(ii.get(y), instanceResolver)))
+				.toArray(InvocationResolver[]::new);
+	}
+
+	@Override
+	public Stream<InvocationGroup> groups(String path) {
+		var b = routes.match(path);
+		return !b.isEmpty() ? resolversByMask.computeIfAbsent(b, _ -> {
+			var rr = new ArrayList<InvocationResolver>();
+			for (var i = b.nextSetBit(0); i >= 0; i = b.nextSetBit(i + 1)) {
+				var r = resolvers[i];
+				if (!rr.contains(r))
+					rr.add(r);
+			}
+			return rr;
+		}).stream().flatMap(x -> x.groups(path)) : Stream.empty();
+	}
+}
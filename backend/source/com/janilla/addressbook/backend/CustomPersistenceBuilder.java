@@ -29,6 +29,9 @@ package com.janilla.addressbook.backend;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -38,8 +41,11 @@ import com.janilla.ioc.DiFactory;
 
 public class CustomPersistenceBuilder extends PersistenceBuilder {
 
-	public CustomPersistenceBuilder(Path databaseFile) {
+	protected final Properties configuration;
+
+	public CustomPersistenceBuilder(Path databaseFile, Properties configuration) {
 		super(databaseFile);
+		this.configuration = configuration;
 	}
 
 	@Override
@@ -49,12 +55,39 @@ public class CustomPersistenceBuilder extends PersistenceBuilder {
 		if (!e) {
 			var d = SeedData.read();
 //			IO.println("CustomPersistenceBuilder.build, d=" + d);
-			for (var c : d.contacts()) {
-				c = c.withId(Stream.of(c.first(), c.last()).map(y -> y.toLowerCase().replace(' ', '_'))
-						.collect(Collectors.joining("-"))).withCreatedAt(Instant.now());
-				x.crud(Contact.class).create(c);
+			x.database().perform(() -> {
+				for (var c : d.contacts()) {
+					c = c.withId(Stream.of(c.first(), c.last()).map(y -> y.toLowerCase().replace(' ', '_'))
+							.collect(Collectors.joining("-"))).withCreatedAt(Instant.now());
+					x.crud(Contact.class).create(c);
+				}
+				return null;
+			}, true);
+
+			var n = Long.parseLong(configuration.getProperty("address-book.database.seed.count"));
+			if (n > 0) {
+				var s = Long.parseLong(configuration.getProperty("address-book.database.seed.random"));
+				var b = Integer.parseInt(configuration.getProperty("address-book.database.seed.batch-size"));
+				var r = new ContactGenerator(s,
+						d.contacts().stream().map(Contact::avatar).filter(Objects::nonNull).toList());
+				var t = System.nanoTime();
+				for (var i = 0L; i < n; i += b) {
+					var j = i;
+					x.database().perform(() -> {
+						var c = x.crud(Contact.class);
+						for (var k = j; k < Math.min(j + b, n); k++)
+							c.create(r.next(k));
+						return null;
+					}, true);
+					var m = Math.min(i + b, n);
+					if (m == n || m % (100L * b) == 0)
+						IO.println("Seeded " + m + " contacts ("
+								+ m * 1_000_000_000L / Math.max(System.nanoTime() - t, 1) + " contacts/s)");
+				}
 			}
 		}
+		diFactory.newInstance(diFactory.classFor(ContactGrams.class),
+				Map.of("configuration", configuration, "persistence", x)).ensure();
 		return x;
 	}
 }
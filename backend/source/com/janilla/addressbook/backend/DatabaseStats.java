@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import com.janilla.backend.persistence.Persistence;
+
+public class DatabaseStats implements AutoCloseable {
+
+	protected static final Path PROCESS_IO = Path.of("/proc/self/io");
+
+	protected final long interval;
+
+	protected final Persistence persistence;
+
+	protected Thread thread;
+
+	public DatabaseStats(Properties configuration, Persistence persistence) {
+		interval = Long.parseLong(configuration.getProperty("address-book.database.stats.interval"));
+		this.persistence = persistence;
+	}
+
+	public synchronized void start() {
+		if (interval <= 0 || thread != null)
+			return;
+		thread = Thread.ofVirtual().name("database-stats").start(() -> {
+			for (;;) {
+				try {
+					TimeUnit.SECONDS.sleep(interval);
+				} catch (InterruptedException e) {
+					break;
+				}
+				IO.println(snapshot());
+			}
+		});
+	}
+
+	@Override
+	public synchronized void close() {
+		if (thread == null)
+			return;
+		thread.interrupt();
+		thread = null;
+	}
+
+	public Snapshot snapshot() {
+		try {
+			var c = persistence.database().channel().channel();
+			var b = ByteBuffer.allocate(100);
+			while (b.hasRemaining() && c.read(b, b.position()) != -1)
+				;
+			var s = c.size();
+			var o = io();
+			if (b.position() < 100)
+				return new Snapshot(s, 0, 0, 0, o);
+			var z = Short.toUnsignedInt(b.getShort(16));
+			if (z == 1)
+				z = 65536;
+			var n = Integer.toUnsignedLong(b.getInt(28));
+			if (n == 0 || b.getInt(24) != b.getInt(92))
+				n = s / z;
+			return new Snapshot(s, z, n, Integer.toUnsignedLong(b.getInt(36)), o);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	protected Io io() throws IOException {
+		if (!Files.isReadable(PROCESS_IO))
+			return null;
+		long rc = 0, wc = 0, rb = 0, wb = 0;
+		for (var l : Files.readAllLines(PROCESS_IO)) {
+			var i = l.indexOf(':');
+			if (i == -1)
+				continue;
+			var v = Long.parseLong(l.substring(i + 1).strip());
+			switch (l.substring(0, i)) {
+			case "syscr" -> rc = v;
+			case "syscw" -> wc = v;
+			case "read_bytes" -> rb = v;
+			case "write_bytes" -> wb = v;
+			}
+		}
+		return new Io(rc, wc, rb, wb);
+	}
+
+	public record Io(long readCalls, long writeCalls, long readBytes, long writeBytes) {
+
+		@Override
+		public String toString() {
+			return "process I/O: " + readCalls + " reads (" + readBytes + " bytes from storage), " + writeCalls
+					+ " writes (" + writeBytes + " bytes to storage)";
+		}
+	}
+
+	public record Snapshot(long fileSize, int pageSize, long pageCount, long freePages, Io io) {
+
+		public double freeRatio() {
+			return pageCount != 0 ? (double) freePages / pageCount : 0;
+		}
+
+		@Override
+		public String toString() {
+			return "Database: " + fileSize + " bytes, " + pageCount + " pages of " + pageSize + " bytes, " + freePages
+					+ " free (" + String.format("%.1f", freeRatio() * 100) + "%)" + (io != null ? ", " + io : "");
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import com.janilla.http.HttpResponse;
+import com.janilla.web.Bind;
+import com.janilla.web.Handle;
+
+@Handle(path = "/api/export")
+@Singleton
+public class ExportApi {
+
+	protected final ContactExport contactExport;
+
+	public ExportApi(ContactExport contactExport) {
+		this.contactExport = contactExport;
+	}
+
+	@Handle(method = "GET", path = "contacts")
+	public void contacts(@Bind("format") String format, @Bind("after") String after, HttpResponse response)
+			throws IOException {
+		var f = format != null && format.equals("csv") ? "csv" : "ndjson";
+		response.setStatus(200);
+		response.setHeaderValue("content-type", f.equals("csv") ? "text/csv; charset=utf-8" : "application/x-ndjson");
+		response.setHeaderValue("content-disposition", "attachment; filename=\"contacts." + f + "\"");
+		var w = new BufferedWriter(new OutputStreamWriter(
+				Channels.newOutputStream((WritableByteChannel) response.getBody()), StandardCharsets.UTF_8));
+		contactExport.run(f, after != null && !after.isEmpty() ? after : null, w);
+		w.flush();
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+public class IdGenerator {
+
+	protected static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+	protected static final int NODE_LENGTH = 2;
+
+	protected static final int SEQUENCE_LENGTH = 3;
+
+	protected final String digits;
+
+	protected final int node;
+
+	protected final boolean ordered;
+
+	protected final int sequenceSize;
+
+	protected final int timeLength;
+
+	protected long sequence;
+
+	protected long time;
+
+	public IdGenerator(Properties configuration) {
+		ordered = configuration.getProperty("address-book.id.mode").equals("ordered");
+		var r = Integer.parseInt(configuration.getProperty("address-book.id.radix"));
+		digits = switch (r) {
+		case 36 -> DIGITS.substring(0, 10) + DIGITS.substring(36);
+		case 62 -> DIGITS;
+		default -> throw new IllegalArgumentException("address-book.id.radix=" + r);
+		};
+		var n = 0;
+		for (var x = 1L << 46; x > 0; x /= r)
+			n++;
+		timeLength = n;
+		sequenceSize = (int) Math.pow(r, SEQUENCE_LENGTH);
+		var s = configuration.getProperty("address-book.id.node");
+		var m = (int) Math.pow(r, NODE_LENGTH);
+		if (ordered && (s == null || s.isBlank()))
+			throw new IllegalArgumentException(
+					"address-book.id.node is required when address-book.id.mode=ordered");
+		node = s != null && !s.isBlank() ? Integer.parseInt(s.strip()) : 0;
+		if (node < 0 || node >= m)
+			throw new IllegalArgumentException("address-book.id.node=" + s);
+	}
+
+	public boolean ordered() {
+		return ordered;
+	}
+
+	public String next() {
+		if (!ordered) {
+			var l = 1L + Integer.MAX_VALUE + ThreadLocalRandom.current().nextLong(Long.MAX_VALUE - Integer.MAX_VALUE);
+			var s = Long.toString(l, 36);
+			return s.length() > 7 ? s.substring(s.length() - 7, s.length()) : s;
+		}
+		long t, q;
+		synchronized (this) {
+			t = Math.max(System.currentTimeMillis(), time);
+			q = t == time ? sequence + 1 : 0;
+			if (q == sequenceSize) {
+				t++;
+				q = 0;
+			}
+			time = t;
+			sequence = q;
+		}
+		var b = new StringBuilder(timeLength + NODE_LENGTH + SEQUENCE_LENGTH);
+		append(t, timeLength, b);
+		append(node, NODE_LENGTH, b);
+		append(q, SEQUENCE_LENGTH, b);
+		return b.toString();
+	}
+
+	public String next(Predicate<String> exists) {
+		String s;
+		do
+			s = next();
+		while (exists.test(s));
+		return s;
+	}
+
+	protected void append(long value, int length, StringBuilder builder) {
+		var r = digits.length();
+		var i = builder.length();
+		builder.setLength(i + length);
+		for (var j = i + length - 1; j >= i; j--) {
+			builder.setCharAt(j, digits.charAt((int) (value % r)));
+			value /= r;
+		}
+	}
+}
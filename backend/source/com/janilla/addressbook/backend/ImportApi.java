@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import com.janilla.http.HttpRequest;
+import com.janilla.http.HttpResponse;
+import com.janilla.web.Handle;
+
+@Handle(path = "/api/import")
+@Singleton
+public class ImportApi {
+
+	protected final ContactImport contactImport;
+
+	public ImportApi(ContactImport contactImport) {
+		this.contactImport = contactImport;
+	}
+
+	protected static void write(long contacts, long start, Writer writer) throws IOException {
+		writer.write("{\"contacts\":" + contacts + ",\"milliseconds\":" + (System.nanoTime() - start) / 1_000_000
+				+ "}\n");
+		writer.flush();
+	}
+
+	@Handle(method = "POST", path = "contacts")
+	public void contacts(HttpRequest request, HttpResponse response) throws IOException {
+		var t = System.nanoTime();
+		response.setStatus(200);
+		response.setHeaderValue("content-type", "application/x-ndjson");
+		var w = new BufferedWriter(new OutputStreamWriter(
+				Channels.newOutputStream((WritableByteChannel) response.getBody()), StandardCharsets.UTF_8));
+		var p = new boolean[1];
+		try {
+			var n = contactImport.run(Channels.newInputStream((ReadableByteChannel) request.getBody()), x -> {
+				try {
+					write(x, t, w);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				p[0] = true;
+			});
+			if (n == 0)
+				write(n, t, w);
+		} catch (InvalidImportException e) {
+			if (!p[0])
+				throw e;
+			w.write("{\"error\":");
+			ContactJson.write(e.getMessage(), w);
+			w.write(",\"line\":" + e.line() + ",\"offset\":" + e.offset() + ",\"contacts\":" + e.committed()
+					+ ",\"resume\":" + e.resume() + "}\n");
+			w.flush();
+		}
+	}
+}
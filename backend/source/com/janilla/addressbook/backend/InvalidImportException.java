@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import com.janilla.web.Error;
+
+@Error(code = 400, text = "Bad Request")
+public class InvalidImportException extends RuntimeException {
+
+	private static final long serialVersionUID = 6309184431724902516L;
+
+	protected final long committed;
+
+	protected final long line;
+
+	protected final long offset;
+
+	protected final long resume;
+
+	public InvalidImportException(long line, long offset, long committed, long resume, Throwable cause) {
+		super("Invalid contact at line " + line + " (byte " + offset + "): " + cause.getMessage() + "; " + committed
+				+ " contacts committed, resume from byte " + resume, cause);
+		this.committed = committed;
+		this.line = line;
+		this.offset = offset;
+		this.resume = resume;
+	}
+
+	public long committed() {
+		return committed;
+	}
+
+	public long line() {
+		return line;
+	}
+
+	public long offset() {
+		return offset;
+	}
+
+	public long resume() {
+		return resume;
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Metrics {
+
+	protected static final long[] BUCKETS = { 1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L,
+			50_000_000L, 100_000_000L, 250_000_000L, 500_000_000L, 1_000_000_000L, 2_500_000_000L, 5_000_000_000L,
+			10_000_000_000L };
+
+	protected static void escape(String string, Writer writer) throws IOException {
+		for (var i = 0; i < string.length(); i++) {
+			var c = string.charAt(i);
+			switch (c) {
+			case '\\' -> writer.write("\\\\");
+			case '"' -> writer.write("\\\"");
+			case '\n' -> writer.write("\\n");
+			default -> writer.write(c);
+			}
+		}
+	}
+
+	protected final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+	protected final Map<Method, String> templates = new ConcurrentHashMap<>();
+
+	public Route route(String method, Method handler) {
+		var t = templates.computeIfAbsent(handler, Routes::template);
+		return routes.computeIfAbsent(method + ' ' + t, _ -> new Route(method, t));
+	}
+
+	public void write(Writer writer) throws IOException {
+		var rr = routes.values().stream().sorted(Comparator.comparing(Route::path).thenComparing(Route::method))
+				.toList();
+		writer.write("# HELP address_book_requests_total Requests handled, by route.\n");
+		writer.write("# TYPE address_book_requests_total counter\n");
+		for (var x : rr)
+			x.write("address_book_requests_total", null, x.requests.sum(), writer);
+		writer.write("# HELP address_book_request_errors_total Requests that ended with an exception, by route.\n");
+		writer.write("# TYPE address_book_request_errors_total counter\n");
+		for (var x : rr)
+			x.write("address_book_request_errors_total", null, x.errors.sum(), writer);
+		writer.write("# HELP address_book_requests_in_flight Requests being handled, by route.\n");
+		writer.write("# TYPE address_book_requests_in_flight gauge\n");
+		for (var x : rr)
+			x.write("address_book_requests_in_flight", null, x.inFlight.sum(), writer);
+		writer.write("# HELP address_book_request_duration_seconds Request latency, by route.\n");
+		writer.write("# TYPE address_book_request_duration_seconds histogram\n");
+		for (var x : rr) {
+			var c = 0L;
+			for (var i = 0; i < BUCKETS.length; i++) {
+				c += x.buckets[i].sum();
+				x.write("address_book_request_duration_seconds_bucket", String.valueOf(BUCKETS[i] / 1e9), c, writer);
+			}
+			c += x.buckets[BUCKETS.length].sum();
+			x.write("address_book_request_duration_seconds_bucket", "+Inf", c, writer);
+			x.write("address_book_request_duration_seconds_sum", null, x.nanoseconds.sum() / 1e9, writer);
+			x.write("address_book_request_duration_seconds_count", null, c, writer);
+		}
+	}
+
+	public static class Route {
+
+		protected final LongAdder[] buckets = new LongAdder[BUCKETS.length + 1];
+
+		protected final LongAdder errors = new LongAdder();
+
+		protected final LongAdder inFlight = new LongAdder();
+
+		protected final String method;
+
+		protected final LongAdder nanoseconds = new LongAdder();
+
+		protected final String path;
+
+		protected final LongAdder requests = new LongAdder();
+
+		public Route(String method, String path) {
+			this.method = method;
+			this.path = path;
+			for (var i = 0; i < buckets.length; i++)
+				buckets[i] = new LongAdder();
+		}
+
+		public String method() {
+			return method;
+		}
+
+		public String path() {
+			return path;
+		}
+
+		public long start() {
+			inFlight.increment();
+			return System.nanoTime();
+		}
+
+		public void stop(long start, boolean error) {
+			var d = System.nanoTime() - start;
+			inFlight.decrement();
+			requests.increment();
+			if (error)
+				errors.increment();
+			nanoseconds.add(d);
+			var i = 0;
+			while (i < BUCKETS.length && d > BUCKETS[i])
+				i++;
+			buckets[i].increment();
+		}
+
+		protected void write(String name, String bucket, Number value, Writer writer) throws IOException {
+			writer.write(name);
+			writer.write("{method=\"");
+			escape(method, writer);
+			writer.write("\",path=\"");
+			escape(path, writer);
+			if (bucket != null) {
+				writer.write("\",le=\"");
+				writer.write(bucket);
+			}
+			writer.write("\"} ");
+			writer.write(value.toString());
+			writer.write('\n');
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import com.janilla.http.HttpResponse;
+import com.janilla.web.Handle;
+
+@Handle(path = "/api/metrics")
+@Singleton
+public class MetricsApi {
+
+	protected static void write(String name, String type, String help, Number value, Writer writer)
+			throws IOException {
+		writer.write("# HELP " + name + " " + help + "\n");
+		writer.write("# TYPE " + name + " " + type + "\n");
+		writer.write(name + " " + value + "\n");
+	}
+
+	protected final ContactCache contactCache;
+
+	protected final DatabaseStats databaseStats;
+
+	protected final Metrics metrics;
+
+	protected final QueryCache queryCache;
+
+	public MetricsApi(ContactCache contactCache, DatabaseStats databaseStats, Metrics metrics,
+			QueryCache queryCache) {
+		this.contactCache = contactCache;
+		this.databaseStats = databaseStats;
+		this.metrics = metrics;
+		this.queryCache = queryCache;
+	}
+
+	@Handle(method = "GET")
+	public void get(HttpResponse response) throws IOException {
+		response.setStatus(200);
+		response.setHeaderValue("content-type", "text/plain; version=0.0.4; charset=utf-8");
+		response.setHeaderValue("cache-control", "no-store");
+		var w = new BufferedWriter(new OutputStreamWriter(
+				Channels.newOutputStream((WritableByteChannel) response.getBody()), StandardCharsets.UTF_8));
+		metrics.write(w);
+		write("address_book_contact_cache_hits_total", "counter", "Contact cache hits.", contactCache.hits(), w);
+		write("address_book_contact_cache_misses_total", "counter", "Contact cache misses.", contactCache.misses(),
+				w);
+		write("address_book_contact_cache_evictions_total", "counter", "Contact cache evictions.",
+				contactCache.evictions(), w);
+		write("address_book_contact_cache_entries", "gauge", "Contacts in the cache.", contactCache.size(), w);
+		write("address_book_contact_cache_bytes", "gauge", "Estimated size of the cached contacts.",
+				contactCache.weight(), w);
+		write("address_book_query_cache_hits_total", "counter", "Query cache hits.", queryCache.hits(), w);
+		write("address_book_query_cache_misses_total", "counter", "Query cache misses.", queryCache.misses(), w);
+		write("address_book_query_cache_entries", "gauge", "Queries in the cache.", queryCache.size(), w);
+		var s = databaseStats.snapshot();
+		write("address_book_database_file_bytes", "gauge", "Size of the database file.", s.fileSize(), w);
+		write("address_book_database_page_bytes", "gauge", "Database page size.", s.pageSize(), w);
+		write("address_book_database_pages", "gauge", "Database pages.", s.pageCount(), w);
+		write("address_book_database_free_pages", "gauge", "Database pages on the free list.", s.freePages(), w);
+		write("address_book_database_free_ratio", "gauge", "Fraction of database pages on the free list.",
+				s.freeRatio(), w);
+		if (s.io() != null) {
+			write("address_book_process_read_calls_total", "counter", "Read system calls of the process.",
+					s.io().readCalls(), w);
+			write("address_book_process_write_calls_total", "counter", "Write system calls of the process.",
+					s.io().writeCalls(), w);
+			write("address_book_process_read_bytes_total", "counter", "Bytes the process read from storage.",
+					s.io().readBytes(), w);
+			write("address_book_process_write_bytes_total", "counter", "Bytes the process wrote to storage.",
+					s.io().writeBytes(), w);
+		}
+		w.flush();
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public class QueryCache {
+
+	protected final LongAdder hits = new LongAdder();
+
+	protected final Map<String, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+
+	protected final int maximumIds;
+
+	protected final int maximumSize;
+
+	protected final LongAdder misses = new LongAdder();
+
+	protected final Revision revision;
+
+	public QueryCache(Properties configuration, Revision revision) {
+		maximumIds = Integer.parseInt(configuration.getProperty("address-book.cache.query.ids"));
+		maximumSize = Integer.parseInt(configuration.getProperty("address-book.cache.query.size"));
+		this.revision = revision;
+	}
+
+	public List<String> get(String query, Supplier<Stream<String>> loader) {
+		if (maximumSize == 0)
+			return null;
+		var r = revision.get();
+		synchronized (map) {
+			var x = map.get(query);
+			if (x != null && x.revision == r) {
+				hits.increment();
+				return x.ids;
+			}
+		}
+		misses.increment();
+		var ii = loader.get().limit(maximumIds + 1L).toList();
+		if (ii.size() > maximumIds)
+			return null;
+		synchronized (map) {
+			var x = map.get(query);
+			if (x == null || x.revision < r) {
+				map.put(query, new Entry(r, ii));
+				if (map.size() > maximumSize) {
+					var ee = map.entrySet().iterator();
+					ee.next();
+					ee.remove();
+				}
+			}
+		}
+		return ii;
+	}
+
+	public long hits() {
+		return hits.sum();
+	}
+
+	public long misses() {
+		return misses.sum();
+	}
+
+	public int size() {
+		synchronized (map) {
+			return map.size();
+		}
+	}
+
+	protected record Entry(long revision, List<String> ids) {
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.TreeMap;
+
+public class RouteTrie {
+
+	protected static final String CAPTURE = "([^/]+)";
+
+	protected static final String REST = "(.*)";
+
+	protected static List<String> segments(String template) {
+		var ss = new ArrayList<String>();
+		var d = 0;
+		var i = template.startsWith("/") ? 1 : 0;
+		for (var j = i; j <= template.length(); j++) {
+			var c = j < template.length() ? template.charAt(j) : '/';
+			if (c == '(' || c == '[')
+				d++;
+			else if (c == ')' || c == ']')
+				d--;
+			else if (c == '/' && d == 0) {
+				ss.add(template.substring(i, j));
+				i = j + 1;
+			}
+		}
+		return ss;
+	}
+
+	protected static boolean literal(String segment) {
+		return segment.chars().allMatch(x -> Character.isLetterOrDigit(x) || x == '-' || x == '_' || x == '.'
+				|| x == '~');
+	}
+
+	protected final BitSet fallback;
+
+	protected final List<Routes.Route> routes;
+
+	protected final Node root;
+
+	public RouteTrie(List<Routes.Route> routes) {
+		this.routes = routes;
+		var b = new Builder();
+		var f = new BitSet(routes.size());
+		for (var i = 0; i < routes.size(); i++) {
+			var ss = segments(routes.get(i).template());
+			var n = b;
+			var k = true;
+			for (var j = 0; k && j < ss.size(); j++) {
+				var s = ss.get(j);
+				if (s.equals(REST) && j == ss.size() - 1) {
+					n.rest.set(i);
+					n = null;
+					break;
+				} else if (s.equals(CAPTURE))
+					n = n.capture != null ? n.capture : (n.capture = new Builder());
+				else if (literal(s))
+					n = n.children.computeIfAbsent(s, _ -> new Builder());
+				else
+					k = false;
+			}
+			if (!k)
+				f.set(i);
+			else if (n != null)
+				n.terminal.set(i);
+		}
+		fallback = f;
+		root = b.build();
+	}
+
+	public BitSet match(String path) {
+		var b = new BitSet(routes.size());
+		match(root, path, path.startsWith("/") ? 1 : 0, b);
+		for (var i = fallback.nextSetBit(0); i >= 0; i = fallback.nextSetBit(i + 1))
+			if (routes.get(i).pattern().matcher(path).matches())
+				b.set(i);
+		return b;
+	}
+
+	protected void match(Node node, String path, int start, BitSet bits) {
+		if (start > path.length()) {
+			bits.or(node.terminal);
+			return;
+		}
+		bits.or(node.rest);
+		var e = path.indexOf('/', start);
+		if (e == -1)
+			e = path.length();
+		var m = node.child(path, start, e);
+		if (m != null)
+			match(m, path, e + 1, bits);
+		if (node.capture != null && e > start)
+			match(node.capture, path, e + 1, bits);
+	}
+
+	protected static class Builder {
+
+		protected final TreeMap<String, Builder> children = new TreeMap<>();
+
+		protected Builder capture;
+
+		protected final BitSet rest = new BitSet();
+
+		protected final BitSet terminal = new BitSet();
+
+		protected Node build() {
+			return new Node(children.keySet().toArray(String[]::new),
+					children.values().stream().map(Builder::build).toArray(Node[]::new),
+					capture != null ? capture.build() : null, rest, terminal);
+		}
+	}
+
+	protected record Node(String[] names, Node[] children, Node capture, BitSet rest, BitSet terminal) {
+
+		protected Node child(String path, int start, int end) {
+			var l = 0;
+			var h = names.length - 1;
+			while (l <= h) {
+				var m = (l + h) >>> 1;
+				var c = compare(names[m], path, start, end);
+				if (c < 0)
+					l = m + 1;
+				else if (c > 0)
+					h = m - 1;
+				else
+					return children[m];
+			}
+			return null;
+		}
+
+		protected static int compare(String name, String path, int start, int end) {
+			var n = Math.min(name.length(), end - start);
+			for (var i = 0; i < n; i++) {
+				var c = name.charAt(i) - path.charAt(start + i);
+				if (c != 0)
+					return c;
+			}
+			return name.length() - (end - start);
+		}
+	}
+}
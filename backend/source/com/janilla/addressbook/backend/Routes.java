@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.lang.reflect.Method;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.janilla.ioc.DiFactory;
+import com.janilla.web.Handle;
+import com.janilla.web.Invocable;
+
+public class Routes {
+
+	public static String template(Method method) {
+		var h1 = method.getDeclaringClass().getAnnotation(Handle.class);
+		var h2 = method.getAnnotation(Handle.class);
+		var p1 = h1 != null ? h1.path() : "";
+		var p2 = h2 != null ? h2.path() : "";
+		return p2.startsWith("/") || p1.isEmpty() ? p2 : p2.isEmpty() ? p1 : p1 + "/" + p2;
+	}
+
+	protected final Map<BitSet, String> allowedMethods = new ConcurrentHashMap<>();
+
+	protected final List<Route> routes;
+
+	protected final RouteTrie trie;
+
+	public Routes(DiFactory diFactory) {
+		routes = ClassIndex.getInvocables(AddressBookBackend.class, diFactory.types()).stream().map(Invocable::method)
+				.map(x -> {
+					var m = x.getAnnotation(Handle.class).method();
+					var t = template(x);
+					return new Route(m != null && !m.isEmpty() ? m : null, t, Pattern.compile(t), x);
+				}).toList();
+		trie = new RouteTrie(routes);
+		for (var i = 0; i < routes.size(); i++) {
+			var b = new BitSet(routes.size());
+			b.set(i);
+			allowedMethods(b);
+		}
+	}
+
+	public List<Route> routes() {
+		return routes;
+	}
+
+	public BitSet match(String path) {
+		return trie.match(path);
+	}
+
+	public String allowedMethods(String path) {
+		return allowedMethods(trie.match(path));
+	}
+
+	protected String allowedMethods(BitSet bits) {
+		return allowedMethods.computeIfAbsent(bits, _ -> {
+			var mm = bits.stream().mapToObj(x -> routes.get(x).method()).distinct().toList();
+			return mm.contains(null) ? "*" : mm.stream().collect(Collectors.joining(", "));
+		});
+	}
+
+	public record Route(String method, String template, Pattern pattern, Method handler) {
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.backend;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.janilla.ioc.DiFactory;
+
+public class SettingsWatcher implements AutoCloseable {
+
+	protected final DiFactory diFactory;
+
+	protected final Path file;
+
+	protected final AtomicReference<Settings> settings;
+
+	protected Thread thread;
+
+	public SettingsWatcher(Properties configuration, DiFactory diFactory, Path file) {
+		this.diFactory = diFactory;
+		this.file = file;
+		settings = new AtomicReference<>(Settings.of(configuration));
+	}
+
+	public synchronized void start() {
+		if (thread != null || file == null || file.getFileSystem() != FileSystems.getDefault()
+				|| !Files.isRegularFile(file))
+			return;
+		thread = Thread.ofVirtual().name("settings-watcher").start(this::watch);
+	}
+
+	@Override
+	public synchronized void close() {
+		if (thread == null)
+			return;
+		thread.interrupt();
+		thread = null;
+	}
+
+	public Settings get() {
+		return settings.get();
+	}
+
+	protected void watch() {
+		var d = file.toAbsolutePath().getParent();
+		var n = file.getFileName();
+		try (var w = d.getFileSystem().newWatchService()) {
+			d.register(w, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			for (;;) {
+				var k = w.take();
+				var c = k.pollEvents().stream().anyMatch(x -> n.equals(x.context()));
+				if (c)
+					reload();
+				if (!k.reset())
+					break;
+			}
+		} catch (IOException | InterruptedException | ClosedWatchServiceException e) {
+			IO.println("SettingsWatcher stopped: " + e);
+		}
+	}
+
+	protected void reload() {
+		try {
+			var s = Settings.of(diFactory.newInstance(diFactory.classFor(Properties.class),
+					Collections.singletonMap("file", file)));
+			if (!s.equals(settings.getAndSet(s)))
+				IO.println("Reloaded " + file + ": " + s);
+		} catch (RuntimeException e) {
+			IO.println("Could not reload " + file + ": " + e);
+		}
+	}
+}
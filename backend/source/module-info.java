@@ -30,5 +30,7 @@ module com.janilla.addressbook.backend {
 
 	opens com.janilla.addressbook.backend;
 
+	requires java.net.http;
+
 	requires transitive com.janilla.backend;
 }
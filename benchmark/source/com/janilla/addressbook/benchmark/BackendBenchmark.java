@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.janilla.addressbook.backend.AddressBookBackend;
+import com.janilla.addressbook.backend.ClassIndex;
+import com.janilla.addressbook.backend.Contact;
+import com.janilla.ioc.DefaultDiFactory;
+import com.janilla.java.Java;
+
+public abstract class BackendBenchmark {
+
+	@Param("10000")
+	public int size;
+
+	@Param({ "true", "false" })
+	public boolean cached;
+
+	protected AddressBookBackend backend;
+
+	protected BenchmarkContactApi contactApi;
+
+	protected Path directory;
+
+	protected List<String> ids;
+
+	@Setup(Level.Trial)
+	public void setUpTrial() throws IOException {
+		directory = Files.createTempDirectory("address-book-benchmark");
+		var p = directory.resolve("configuration.properties");
+		Files.writeString(p,
+				"address-book.database.file=" + directory.resolve("address-book.db").toString().replace("\\", "\\\\")
+						+ "\naddress-book.database.seed.count=" + size + "\n");
+		var f = new DefaultDiFactory(Arrays.stream(AddressBookBackend.DI_PACKAGES)
+				.flatMap(x -> ClassIndex.getPackageClasses(AddressBookBackend.class, x).stream()).toList());
+		backend = f.newInstance(f.classFor(AddressBookBackend.class),
+				Java.hashMap("diFactory", f, "configurationFile", p));
+		contactApi = new BenchmarkContactApi(backend);
+		ids = backend.persistence().crud(Contact.class).list();
+	}
+
+	@Setup(Level.Invocation)
+	public void setUpInvocation() {
+		if (!cached) {
+			backend.contactCache().clear();
+			backend.revision().increment();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDownTrial() throws IOException {
+		try (var x = Files.walk(directory).sorted(Comparator.reverseOrder())) {
+			for (var y : x.toList())
+				Files.delete(y);
+		}
+	}
+
+	protected String randomId() {
+		return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.benchmark;
+
+import java.util.stream.Stream;
+
+import com.janilla.addressbook.backend.AddressBookBackend;
+import com.janilla.addressbook.backend.Contact;
+import com.janilla.addressbook.backend.ContactApi;
+
+public class BenchmarkContactApi extends ContactApi {
+
+	public BenchmarkContactApi(AddressBookBackend backend) {
+		super(backend.contactCache(), backend.contactGrams(), backend.contactIndex(), backend.idGenerator(),
+				backend.persistence(), backend.queryCache(), backend.revision());
+	}
+
+	public static boolean matches(String tokens, char[] query) {
+		return ContactApi.matches(tokens, query);
+	}
+
+	public Stream<Contact> list(String query, int limit) {
+		var q = !query.isEmpty() ? Contact.normalize(query).toCharArray() : null;
+		var ii = q != null ? search(q, false, null, limit) : list(false, null);
+		return limit != 0 ? read(ii.limit(limit), Math.min(limit, CHUNK_SIZE)) : read(ii, CHUNK_SIZE);
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.benchmark;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.janilla.addressbook.backend.Contact;
+import com.janilla.addressbook.backend.ContactGenerator;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ContactMatchBenchmark {
+
+	protected static final int ROWS = 1000;
+
+	protected static boolean split(String full, char[] query) {
+		for (var x : full.split(" ")) {
+			var s = x.toLowerCase(Locale.ROOT);
+			var i = -1;
+			var m = true;
+			for (var y : query) {
+				i = s.indexOf(y, i + 1);
+				if (i == -1) {
+					m = false;
+					break;
+				}
+			}
+			if (m)
+				return true;
+		}
+		return false;
+	}
+
+	@Param({ "a", "ma", "smith" })
+	public String query;
+
+	protected List<String> full;
+
+	protected char[] normalized;
+
+	protected List<String> tokens;
+
+	@Setup
+	public void setUp() {
+		var g = new ContactGenerator(1, List.of());
+		var cc = LongStream.range(0, ROWS).mapToObj(g::next).filter(x -> x.full() != null).toList();
+		full = cc.stream().map(Contact::full).toList();
+		tokens = cc.stream().map(Contact::tokens).toList();
+		normalized = Contact.normalize(query).toCharArray();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public int full() {
+		var n = 0;
+		for (var x : full)
+			if (split(x, normalized))
+				n++;
+		return n;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public int tokens() {
+		var n = 0;
+		for (var x : tokens)
+			if (BenchmarkContactApi.matches(x, normalized))
+				n++;
+		return n;
+	}
+}
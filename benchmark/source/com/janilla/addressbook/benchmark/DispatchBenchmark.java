@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.janilla.addressbook.backend.AddressBookBackend;
+import com.janilla.addressbook.backend.ClassIndex;
+import com.janilla.ioc.DefaultDiFactory;
+import com.janilla.java.Java;
+import com.janilla.web.InvocationResolver;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DispatchBenchmark {
+
+	@Param({ "/api/contacts", "/api/contacts/abc1234", "/api/contacts/abc1234/favorite", "/api/contacts/batch",
+			"/api/unknown/path" })
+	public String path;
+
+	protected AddressBookBackend backend;
+
+	protected Path directory;
+
+	protected InvocationResolver regex;
+
+	@Setup
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("address-book-benchmark");
+		var p = directory.resolve("configuration.properties");
+		Files.writeString(p, "address-book.database.file="
+				+ directory.resolve("address-book.db").toString().replace("\\", "\\\\") + "\n");
+		var f = new DefaultDiFactory(Arrays.stream(AddressBookBackend.DI_PACKAGES)
+				.flatMap(x -> ClassIndex.getPackageClasses(AddressBookBackend.class, x).stream()).toList());
+		backend = f.newInstance(f.classFor(AddressBookBackend.class),
+				Java.hashMap("diFactory", f, "configurationFile", p));
+		regex = new InvocationResolver(ClassIndex.getInvocables(AddressBookBackend.class, f.types()),
+				backend::instance);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		try (var x = Files.walk(directory).sorted(Comparator.reverseOrder())) {
+			for (var y : x.toList())
+				Files.delete(y);
+		}
+	}
+
+	@Benchmark
+	public List<?> regex() {
+		return regex.groups(path).toList();
+	}
+
+	@Benchmark
+	public List<?> wired() {
+		return backend.invocationResolver().groups(path).toList();
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.benchmark;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Histogram {
+
+	protected static final int SUB_BITS = 7;
+
+	protected static final int SUB_COUNT = 1 << SUB_BITS;
+
+	protected static final int HALF_COUNT = SUB_COUNT >>> 1;
+
+	protected static int index(long value) {
+		if (value < SUB_COUNT)
+			return (int) Math.max(value, 0);
+		var s = 64 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+		return SUB_COUNT + (s - 1) * HALF_COUNT + (int) (value >>> s) - HALF_COUNT;
+	}
+
+	protected static long lowest(int index) {
+		if (index < SUB_COUNT)
+			return index;
+		var s = (index - SUB_COUNT) / HALF_COUNT + 1;
+		return ((long) ((index - SUB_COUNT) % HALF_COUNT + HALF_COUNT)) << s;
+	}
+
+	protected final AtomicLongArray counts = new AtomicLongArray(index(Long.MAX_VALUE) + 1);
+
+	protected final LongAdder count = new LongAdder();
+
+	protected final LongAccumulator maximum = new LongAccumulator(Math::max, 0);
+
+	protected final LongAdder total = new LongAdder();
+
+	public void record(long value) {
+		counts.incrementAndGet(index(value));
+		count.increment();
+		maximum.accumulate(value);
+		total.add(value);
+	}
+
+	public long count() {
+		return count.sum();
+	}
+
+	public long maximum() {
+		return maximum.get();
+	}
+
+	public double mean() {
+		var n = count.sum();
+		return n != 0 ? (double) total.sum() / n : 0;
+	}
+
+	public long percentile(double percentile) {
+		var n = count.sum();
+		if (n == 0)
+			return 0;
+		var t = Math.max((long) Math.ceil(percentile / 100 * n), 1);
+		var c = 0L;
+		for (var i = 0; i < counts.length(); i++) {
+			c += counts.get(i);
+			if (c >= t)
+				return Math.min(i + 1 < counts.length() ? lowest(i + 1) - 1 : Long.MAX_VALUE, maximum());
+		}
+		return maximum();
+	}
+}
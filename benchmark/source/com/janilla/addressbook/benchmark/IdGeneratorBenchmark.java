@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import com.janilla.addressbook.backend.AddressBookBackend;
+import com.janilla.addressbook.backend.ClassIndex;
+import com.janilla.addressbook.backend.Contact;
+import com.janilla.ioc.DefaultDiFactory;
+import com.janilla.java.Java;
+
+public class IdGeneratorBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		var n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		var m = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		var d = Files.createTempDirectory("address-book-ids");
+		for (var x : List.of("random", "ordered")) {
+			var f = d.resolve(x + ".db");
+			var p = d.resolve(x + ".properties");
+			Files.writeString(p, "address-book.database.file=" + f.toString().replace("\\", "\\\\")
+					+ "\naddress-book.id.mode=" + x + "\naddress-book.id.node=1\n");
+			var g = new DefaultDiFactory(Arrays.stream(AddressBookBackend.DI_PACKAGES)
+					.flatMap(y -> ClassIndex.getPackageClasses(AddressBookBackend.class, y).stream()).toList());
+			var a = g.newInstance(g.classFor(AddressBookBackend.class),
+					Java.hashMap("diFactory", g, "configurationFile", p));
+			var s0 = Files.size(f);
+			var t = System.nanoTime();
+			for (var i = 0; i < n; i += m) {
+				var j = i;
+				a.persistence().database().perform(() -> {
+					var c = a.persistence().crud(Contact.class);
+					for (var k = j; k < Math.min(j + m, n); k++)
+						c.create(new Contact(a.idGenerator().next(y -> c.read(y) != null), Instant.now(), null,
+								"First" + k, "Last" + k, null, null));
+					return null;
+				}, true);
+			}
+			var t2 = System.nanoTime() - t;
+			var s = Files.size(f);
+			IO.println(x + ": " + n + " contacts in " + t2 / 1_000_000 + " ms (" + n * 1_000_000_000L / t2
+					+ " contacts/s), file " + s0 + " -> " + s + " bytes (" + (s - s0) / n + " bytes/contact)");
+		}
+	}
+}
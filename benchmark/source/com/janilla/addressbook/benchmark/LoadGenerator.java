@@ -0,0 +1,225 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.janilla.addressbook.backend.LoopbackClient;
+import com.janilla.json.Json;
+
+public class LoadGenerator {
+
+	protected static final List<String> OPERATIONS = List.of("list", "search", "read", "create", "update", "favorite",
+			"delete");
+
+	public static void main(String[] args) throws Exception {
+		var m = new LinkedHashMap<String, String>(Map.of("api", "https://localhost:8444/api", "users", "100", "rate",
+				"500", "duration", "30", "warmup", "5", "mix",
+				"list=20,search=30,read=30,create=6,update=6,favorite=6,delete=2"));
+		for (var x : args) {
+			var i = x.indexOf('=');
+			if (!x.startsWith("--") || i == -1 || !m.containsKey(x.substring(2, i))) {
+				IO.println(
+						"Usage: LoadGenerator [--api=URL] [--users=N] [--rate=OPS_PER_SECOND] [--duration=SECONDS] [--warmup=SECONDS] [--mix=OP=WEIGHT,...]");
+				return;
+			}
+			m.put(x.substring(2, i), x.substring(i + 1));
+		}
+		var g = new LoadGenerator(URI.create(m.get("api")), Integer.parseInt(m.get("users")),
+				Double.parseDouble(m.get("rate")), Duration.ofSeconds(Long.parseLong(m.get("duration"))),
+				Duration.ofSeconds(Long.parseLong(m.get("warmup"))), m.get("mix"));
+		g.run();
+		g.report();
+	}
+
+	protected final URI api;
+
+	protected final HttpClient client;
+
+	protected final ConcurrentLinkedQueue<String> created = new ConcurrentLinkedQueue<>();
+
+	protected final Duration duration;
+
+	protected final AtomicLongArray errors = new AtomicLongArray(OPERATIONS.size());
+
+	protected final Histogram[] histograms = new Histogram[OPERATIONS.size()];
+
+	protected final int[] mix = new int[OPERATIONS.size()];
+
+	protected final double rate;
+
+	protected final AtomicLongArray skipped = new AtomicLongArray(OPERATIONS.size());
+
+	protected final int users;
+
+	protected final Duration warmup;
+
+	protected long elapsed;
+
+	protected List<String> ids;
+
+	public LoadGenerator(URI api, int users, double rate, Duration duration, Duration warmup, String mix)
+			throws Exception {
+		this.api = api;
+		this.users = users;
+		this.rate = rate;
+		this.duration = duration;
+		this.warmup = warmup;
+		for (var x : mix.split(",")) {
+			var i = x.indexOf('=');
+			var o = OPERATIONS.indexOf(x.substring(0, i).strip());
+			if (o == -1)
+				throw new IllegalArgumentException("mix=" + mix);
+			this.mix[o] = Integer.parseInt(x.substring(i + 1).strip());
+		}
+		Arrays.setAll(histograms, _ -> new Histogram());
+		client = LoopbackClient.newBuilder(api)
+				.executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+	}
+
+	public void run() throws Exception {
+		var r = client.send(HttpRequest.newBuilder(URI.create(api + "/contacts")).build(),
+				HttpResponse.BodyHandlers.ofString());
+		if (r.statusCode() != 200)
+			throw new IllegalStateException("GET " + api + "/contacts: " + r.statusCode());
+		ids = ((List<?>) Json.parse(r.body())).stream().map(x -> (String) ((Map<?, ?>) x).get("id")).toList();
+		IO.println("Loaded " + ids.size() + " contact ids from " + api);
+
+		var i = (long) (users * 1_000_000_000L / rate);
+		var t0 = System.nanoTime() + 100_000_000L;
+		var t1 = t0 + warmup.toNanos();
+		var t2 = t1 + duration.toNanos();
+		try (var e = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (var u = 0; u < users; u++) {
+				var o = t0 + i * u / users;
+				e.submit(() -> {
+					for (var t = o; t < t2; t += i) {
+						var d = t - System.nanoTime();
+						if (d > 0)
+							LockSupport.parkNanos(d);
+						var k = next();
+						var b = request(k);
+						if (b == null) {
+							if (t >= t1)
+								skipped.incrementAndGet(k);
+							continue;
+						}
+						var s = send(k, b);
+						var l = System.nanoTime() - t;
+						if (t >= t1) {
+							histograms[k].record(l);
+							if (!s)
+								errors.incrementAndGet(k);
+						}
+					}
+				});
+			}
+		}
+		elapsed = System.nanoTime() - t1;
+	}
+
+	public void report() {
+		var s = TimeUnit.NANOSECONDS.toMillis(elapsed) / 1000.0;
+		IO.println(String.format("%-9s %10s %10s %8s %8s %10s %10s %10s %10s", "operation", "count", "ops/s",
+				"errors", "skipped", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+		var n = 0L;
+		for (var k = 0; k < OPERATIONS.size(); k++) {
+			var h = histograms[k];
+			if (h.count() == 0 && skipped.get(k) == 0)
+				continue;
+			n += h.count();
+			IO.println(String.format("%-9s %10d %10.1f %8d %8d %10.2f %10.2f %10.2f %10.2f", OPERATIONS.get(k),
+					h.count(), h.count() / s, errors.get(k), skipped.get(k), h.percentile(50) / 1e6,
+					h.percentile(99) / 1e6, h.percentile(99.9) / 1e6, h.maximum() / 1e6));
+		}
+		IO.println(String.format("%-9s %10d %10.1f (target %.1f ops/s, %d users, %.1f s)", "total", n, n / s, rate,
+				users, s));
+	}
+
+	protected int next() {
+		var n = ThreadLocalRandom.current().nextInt(Arrays.stream(mix).sum());
+		for (var k = 0; k < mix.length; k++) {
+			n -= mix[k];
+			if (n < 0)
+				return k;
+		}
+		throw new IllegalStateException();
+	}
+
+	protected HttpRequest.Builder request(int operation) {
+		var z = ThreadLocalRandom.current();
+		var i = !ids.isEmpty() ? ids.get(z.nextInt(ids.size())) : null;
+		return switch (OPERATIONS.get(operation)) {
+		case "list" -> HttpRequest.newBuilder(URI.create(api + "/contacts"));
+		case "search" -> HttpRequest.newBuilder(URI.create(api + "/contacts?query="
+				+ (char) ('a' + z.nextInt(26)) + (z.nextBoolean() ? String.valueOf((char) ('a' + z.nextInt(26))) : "")));
+		case "read" -> i != null ? HttpRequest.newBuilder(URI.create(api + "/contacts/" + i)) : null;
+		case "create" -> HttpRequest.newBuilder(URI.create(api + "/contacts")).POST(body(z));
+		case "update" -> i != null ? HttpRequest.newBuilder(URI.create(api + "/contacts/" + i)).PUT(body(z)) : null;
+		case "favorite" -> i != null ? HttpRequest.newBuilder(URI.create(api + "/contacts/" + i + "/favorite"))
+				.PUT(HttpRequest.BodyPublishers.ofString(String.valueOf(z.nextBoolean()))) : null;
+		default -> {
+			var j = created.poll();
+			yield j != null ? HttpRequest.newBuilder(URI.create(api + "/contacts/" + j)).DELETE() : null;
+		}
+		};
+	}
+
+	protected boolean send(int operation, HttpRequest.Builder builder) {
+		try {
+			var r = client.send(builder.header("content-type", "application/json").build(),
+					HttpResponse.BodyHandlers.ofString());
+			if (r.statusCode() != 200)
+				return false;
+			if (OPERATIONS.get(operation).equals("create"))
+				created.add((String) ((Map<?, ?>) Json.parse(r.body())).get("id"));
+			return true;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	protected HttpRequest.BodyPublisher body(ThreadLocalRandom random) {
+		var n = random.nextInt(1_000_000);
+		return HttpRequest.BodyPublishers.ofString(
+				"{\"first\":\"Load" + n + "\",\"last\":\"Test" + n + "\",\"twitter\":\"@load" + n + "\"}");
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.janilla.addressbook.backend.LoopbackClient;
+
+public class StartupBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		var i = Arrays.asList(args).indexOf("--");
+		if (i == -1 || i == args.length - 1) {
+			IO.println(
+					"Usage: StartupBenchmark [--url=URL] [--runs=N] [--aot-cache=FILE] -- java [options] --module ... [configuration]");
+			return;
+		}
+		var u = URI.create("https://localhost:8444/api/contacts");
+		var n = 5;
+		String a = null;
+		for (var x : Arrays.asList(args).subList(0, i))
+			if (x.startsWith("--url="))
+				u = URI.create(x.substring(6));
+			else if (x.startsWith("--runs="))
+				n = Integer.parseInt(x.substring(7));
+			else if (x.startsWith("--aot-cache="))
+				a = x.substring(12);
+		var c = Arrays.asList(args).subList(i + 1, args.length);
+		var h = LoopbackClient.newBuilder(u).build();
+
+		report("without AOT cache", measure(c, u, n, h));
+		{
+			var d = new ArrayList<>(c);
+			d.add(1, "-Daddress-book.class-index=false");
+			report("without AOT cache, scanning packages", measure(d, u, n, h));
+		}
+		if (a != null) {
+			var d = new ArrayList<>(c);
+			d.add(1, "-XX:AOTCache=" + a);
+			report("with AOT cache " + a, measure(d, u, n, h));
+		}
+	}
+
+	protected static long[] measure(List<String> command, URI uri, int runs, HttpClient client)
+			throws IOException, InterruptedException {
+		var tt = new long[runs];
+		for (var i = 0; i < runs; i++) {
+			var t = System.nanoTime();
+			var p = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD)
+					.start();
+			try {
+				for (;;) {
+					if (!p.isAlive())
+						throw new IllegalStateException("Process exited with " + p.exitValue());
+					try {
+						if (client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding())
+								.statusCode() == 200)
+							break;
+					} catch (IOException e) {
+					}
+					if (System.nanoTime() - t > TimeUnit.SECONDS.toNanos(120))
+						throw new IllegalStateException(uri + " not reachable");
+					TimeUnit.MILLISECONDS.sleep(10);
+				}
+				tt[i] = System.nanoTime() - t;
+			} finally {
+				p.destroy();
+				if (!p.waitFor(10, TimeUnit.SECONDS))
+					p.destroyForcibly().waitFor();
+			}
+		}
+		Arrays.sort(tt);
+		return tt;
+	}
+
+	protected static void report(String label, long[] times) {
+		IO.println(String.format("%-40s runs=%d min=%d ms median=%d ms max=%d ms", label, times.length,
+				times[0] / 1_000_000, times[times.length / 2] / 1_000_000, times[times.length - 1] / 1_000_000));
+	}
+}
@@ -28,10 +28,12 @@ package com.janilla.addressbook.frontend;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.lang.reflect.Modifier;
 import java.net.InetSocketAddress;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
@@ -50,7 +52,6 @@ import com.janilla.ioc.DefaultDiFactory;
 import com.janilla.ioc.DiFactory;
 import com.janilla.java.Java;
 import com.janilla.web.ApplicationHandlerFactory;
-import com.janilla.web.Invocable;
 import com.janilla.web.InvocationResolver;
 import com.janilla.web.NotFoundException;
 import com.janilla.web.RenderableFactory;
@@ -62,9 +63,18 @@ public class AddressBookFrontend {
 
 	public static void main(String[] args) {
 		IO.println(ProcessHandle.current().pid());
-		var f = new DefaultDiFactory(
-				Arrays.stream(DI_PACKAGES).flatMap(x -> Java.getPackageClasses(x, false).stream()).toList());
-		serve(f, args.length > 0 ? args[0] : null);
+		var f = new DefaultDiFactory(Arrays.stream(DI_PACKAGES)
+				.flatMap(x -> ClassIndex.getPackageClasses(AddressBookFrontend.class, x).stream()).toList());
+		var c = args.length > 0 ? args[0] : null;
+		if (Boolean.getBoolean("address-book.training")) {
+			var b = "https://localhost:" + new CustomProperties(c != null
+					? Path.of(c.startsWith("~") ? System.getProperty("user.home") + c.substring(1) : c)
+					: null).getProperty("address-book.server.port");
+			var u = URI.create(b + "/");
+			Thread.ofVirtual()
+					.start(() -> System.exit(PageTraining.run(LoopbackClient.newBuilder(u).build(), u) ? 0 : 1));
+		}
+		serve(f, c);
 	}
 
 	protected static void serve(DiFactory diFactory, String configurationPath) {
@@ -85,6 +95,8 @@ public class AddressBookFrontend {
 			s = a.diFactory.newInstance(a.diFactory.classFor(HttpServer.class),
 					Map.of("sslContext", c, "endpoint", new InetSocketAddress(p), "handler", a.handler));
 		}
+		ProcessHandle.current().info().startInstant()
+				.ifPresent(x -> IO.println("Started in " + Duration.between(x, Instant.now()).toMillis() + " ms"));
 		s.serve();
 	}
 
@@ -142,11 +154,7 @@ public class AddressBookFrontend {
 
 		invocationResolver = diFactory.newInstance(diFactory.classFor(InvocationResolver.class),
 				Map.of("invocables",
-						diFactory.types().stream()
-								.flatMap(x -> Arrays.stream(x.getMethods())
-										.filter(y -> !Modifier.isStatic(y.getModifiers()) && !y.isBridge())
-										.map(y -> new Invocable(x, y)))
-								.toList(),
+						ClassIndex.getInvocables(AddressBookFrontend.class, diFactory.types()),
 						"instanceResolver", (Function<Class<?>, Object>) x -> {
 							var y = diFactory.context();
 //							IO.println("x=" + x + ", y=" + y);
@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.frontend;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.janilla.java.Java;
+import com.janilla.web.Handle;
+import com.janilla.web.Invocable;
+
+public class ClassIndex {
+
+	protected static final boolean ENABLED = !System.getProperty("address-book.class-index", "true").equals("false");
+
+	protected static final Map<Class<?>, Properties> INDEXES = new ConcurrentHashMap<>();
+
+	public static void main(String[] args) throws IOException {
+		var t = System.nanoTime();
+		var p = new Properties();
+		for (var x : Arrays.asList(args).subList(2, args.length)) {
+			var cc = Java.getPackageClasses(x, false);
+			p.setProperty(x, cc.stream().map(Class::getName).collect(Collectors.joining(",")));
+			for (var c : cc) {
+				var s = handles(c).map(y -> y.getName() + "(" + Arrays.stream(y.getParameterTypes())
+						.map(Class::getName).collect(Collectors.joining(",")) + ")").collect(Collectors.joining(";"));
+				if (!s.isEmpty())
+					p.setProperty("handle." + c.getName(), s);
+			}
+		}
+		var f = Path.of(args[0]).resolve(resource(args[1]));
+		Files.createDirectories(f.getParent());
+		try (var w = Files.newBufferedWriter(f)) {
+			p.store(w, null);
+		}
+		IO.println("Indexed " + (args.length - 2) + " packages into " + f + " (" + (System.nanoTime() - t) / 1_000_000
+				+ " ms)");
+	}
+
+	public static List<Class<?>> getPackageClasses(Class<?> anchor, String packageName) {
+		var s = index(anchor).getProperty(packageName);
+		if (s == null)
+			return Java.getPackageClasses(packageName, false);
+		var cc = new ArrayList<Class<?>>();
+		try {
+			for (var x : s.split(","))
+				if (!x.isEmpty())
+					cc.add(Class.forName(x, false, anchor.getClassLoader()));
+		} catch (ClassNotFoundException e) {
+			IO.println("Stale " + resource(anchor.getName()) + " (" + e.getMessage() + "), scanning " + packageName);
+			return Java.getPackageClasses(packageName, false);
+		}
+		return cc;
+	}
+
+	public static List<Invocable> getInvocables(Class<?> anchor, Collection<Class<?>> types) {
+		var p = index(anchor);
+		return types.stream().flatMap(x -> {
+			if (!p.containsKey(x.getPackageName()))
+				return handles(x).map(y -> new Invocable(x, y));
+			var s = p.getProperty("handle." + x.getName());
+			if (s == null)
+				return Stream.empty();
+			return Arrays.stream(s.split(";")).map(y -> {
+				var i = y.indexOf('(');
+				var aa = y.substring(i + 1, y.length() - 1).split(",");
+				try {
+					var tt = new Class<?>[aa[0].isEmpty() ? 0 : aa.length];
+					for (var j = 0; j < tt.length; j++)
+						tt[j] = type(aa[j], anchor.getClassLoader());
+					return new Invocable(x, x.getMethod(y.substring(0, i), tt));
+				} catch (ReflectiveOperationException e) {
+					throw new IllegalStateException("Stale " + resource(anchor.getName()) + ": " + y, e);
+				}
+			});
+		}).toList();
+	}
+
+	protected static Stream<Method> handles(Class<?> type) {
+		return Arrays.stream(type.getMethods()).filter(
+				x -> !Modifier.isStatic(x.getModifiers()) && !x.isBridge() && x.isAnnotationPresent(Handle.class));
+	}
+
+	protected static Properties index(Class<?> anchor) {
+		return INDEXES.computeIfAbsent(anchor, x -> {
+			var p = new Properties();
+			if (ENABLED)
+				try (var y = x.getModule().getResourceAsStream(resource(x.getName()))) {
+					if (y != null)
+						p.load(y);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			return p;
+		});
+	}
+
+	protected static String resource(String anchor) {
+		return "META-INF/class-index/" + anchor + ".properties";
+	}
+
+	protected static Class<?> type(String name, ClassLoader loader) throws ClassNotFoundException {
+		return switch (name) {
+		case "boolean" -> boolean.class;
+		case "byte" -> byte.class;
+		case "char" -> char.class;
+		case "double" -> double.class;
+		case "float" -> float.class;
+		case "int" -> int.class;
+		case "long" -> long.class;
+		case "short" -> short.class;
+		default -> Class.forName(name, false, loader);
+		};
+	}
+}
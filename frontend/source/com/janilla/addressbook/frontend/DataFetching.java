@@ -29,30 +29,156 @@ package com.janilla.addressbook.frontend;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.janilla.http.HttpClient;
 import com.janilla.java.UriQueryBuilder;
 
 public class DataFetching {
 
+	protected static long size(Object object) {
+		return switch (object) {
+		case null -> 0;
+		case String x -> 40 + 2L * x.length();
+		case Map<?, ?> x -> {
+			var s = 48 + 32L * x.size();
+			for (var y : x.entrySet())
+				s += size(y.getKey()) + size(y.getValue());
+			yield s;
+		}
+		case List<?> x -> {
+			var s = 24 + 8L * x.size();
+			for (var y : x)
+				s += size(y);
+			yield s;
+		}
+		default -> 16;
+		};
+	}
+
 	protected final Properties configuration;
 
 	protected final HttpClient httpClient;
 
+	protected final Map<String, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+
+	protected final long maximumBytes;
+
+	protected final int maximumSize;
+
+	protected final Map<String, Ttl> ttls;
+
+	protected long bytes;
+
 	public DataFetching(Properties configuration, HttpClient httpClient) {
 		this.configuration = configuration;
 		this.httpClient = httpClient;
+		maximumBytes = Long.parseLong(configuration.getProperty("address-book.data-fetching.bytes"));
+		maximumSize = Integer.parseInt(configuration.getProperty("address-book.data-fetching.size"));
+		ttls = Stream.of("contact", "contacts").collect(Collectors.toUnmodifiableMap(x -> x,
+				x -> new Ttl(seconds(x + ".ttl"), seconds(x + ".stale"))));
 	}
 
 	public Object contact(String id) {
-		return httpClient.getJson(URI.create(configuration.getProperty("address-book.api.url") + "/contacts/"
-				+ URLEncoder.encode(id, StandardCharsets.UTF_8)));
+		return get("contact", id, () -> httpClient.getJson(URI.create(configuration.getProperty("address-book.api.url")
+				+ "/contacts/" + URLEncoder.encode(id, StandardCharsets.UTF_8))));
 	}
 
 	public List<?> contacts(String query) {
-		return (List<?>) httpClient.getJson(URI.create(configuration.getProperty("address-book.api.url") + "/contacts?"
-				+ new UriQueryBuilder().append("query", query)));
+		return (List<?>) get("contacts", query != null ? query : "",
+				() -> httpClient.getJson(URI.create(configuration.getProperty("address-book.api.url") + "/contacts?"
+						+ new UriQueryBuilder().append("query", query))));
+	}
+
+	public void clear() {
+		synchronized (map) {
+			map.clear();
+			bytes = 0;
+		}
+	}
+
+	protected Object get(String endpoint, String argument, Supplier<Object> fetcher) {
+		var l = ttls.get(endpoint);
+		var t = l.fresh();
+		var s = l.stale();
+		if (maximumSize <= 0 || t + s <= 0)
+			return fetcher.get();
+
+		var k = endpoint + "\0" + argument;
+		var n = System.nanoTime();
+		Entry x;
+		var r = false;
+		synchronized (map) {
+			x = map.get(k);
+			if (x != null) {
+				var a = n - x.fetched;
+				if (a >= t + s) {
+					remove(k);
+					x = null;
+				} else if (a >= t && !x.refreshing) {
+					x = new Entry(x.value, x.size, x.fetched, true);
+					map.put(k, x);
+					r = true;
+				}
+			}
+		}
+		if (x == null)
+			return put(k, fetcher.get(), n);
+
+		if (r) {
+			var x0 = x;
+			Thread.ofVirtual().start(() -> {
+				try {
+					put(k, fetcher.get(), System.nanoTime());
+				} catch (RuntimeException e) {
+					IO.println("Could not refresh " + endpoint + " " + argument + ": " + e);
+					synchronized (map) {
+						if (map.get(k) == x0)
+							map.put(k, new Entry(x0.value, x0.size, x0.fetched, false));
+					}
+				}
+			});
+		}
+		return x.value;
+	}
+
+	protected Object put(String key, Object value, long fetched) {
+		var s = size(value) + 2L * key.length();
+		synchronized (map) {
+			remove(key);
+			if (s <= maximumBytes) {
+				map.put(key, new Entry(value, s, fetched, false));
+				bytes += s;
+				for (var ee = map.entrySet().iterator(); ee.hasNext()
+						&& (map.size() > maximumSize || bytes > maximumBytes);) {
+					bytes -= ee.next().getValue().size;
+					ee.remove();
+				}
+			}
+		}
+		return value;
+	}
+
+	protected void remove(String key) {
+		var x = map.remove(key);
+		if (x != null)
+			bytes -= x.size;
+	}
+
+	protected long seconds(String key) {
+		return TimeUnit.SECONDS.toNanos(Long.parseLong(configuration.getProperty("address-book.data-fetching." + key)));
+	}
+
+	protected record Entry(Object value, long size, long fetched, boolean refreshing) {
+	}
+
+	protected record Ttl(long fresh, long stale) {
 	}
 }
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) React Training LLC 2015-2019
+ * Copyright (c) Remix Software Inc. 2020-2021
+ * Copyright (c) Shopify Inc. 2022-2023
+ * Copyright (c) Diego Schivo 2024-2026
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.janilla.addressbook.frontend;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class PageTraining {
+
+	protected static final List<String> PAGES = List.of("/", "/about", "/contacts/shruti-kapoor",
+			"/contacts/shruti-kapoor/edit", "/style.css", "/app.js", "/favicon.ico");
+
+	public static boolean run(HttpClient client, URI base) {
+		try {
+			var t = System.nanoTime();
+			var n = Integer.getInteger("address-book.training.rounds", 20);
+			await(client, base);
+			for (var i = 0; i < n; i++)
+				round(client, base);
+			IO.println("Trained " + base + " with " + n + " rounds (" + (System.nanoTime() - t) / 1_000_000 + " ms)");
+			return true;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	public static void await(HttpClient client, URI uri) throws InterruptedException {
+		for (var t = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);;) {
+			var c = 0;
+			IOException x = null;
+			try {
+				c = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding())
+						.statusCode();
+				if (c / 100 == 2)
+					return;
+			} catch (IOException e) {
+				x = e;
+			}
+			if (System.nanoTime() > t)
+				throw new IllegalStateException(uri + (x != null ? " not reachable" : ": " + c), x);
+			TimeUnit.MILLISECONDS.sleep(100);
+		}
+	}
+
+	public static void round(HttpClient client, URI base) throws IOException, InterruptedException {
+		for (var x : PAGES) {
+			var r = client.send(HttpRequest.newBuilder(base.resolve(x)).build(),
+					HttpResponse.BodyHandlers.discarding());
+			if (r.statusCode() / 100 != 2)
+				throw new IllegalStateException("GET " + x + ": " + r.statusCode());
+		}
+	}
+}
@@ -30,5 +30,7 @@ module com.janilla.addressbook.frontend {
 
 	opens com.janilla.addressbook.frontend;
 
+	requires java.net.http;
+
 	requires transitive com.janilla.frontend;
 }
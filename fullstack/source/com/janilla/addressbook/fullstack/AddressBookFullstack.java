@@ -29,9 +29,12 @@ package com.janilla.addressbook.fullstack;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.InetSocketAddress;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
@@ -42,8 +45,12 @@ import java.util.stream.Stream;
 import javax.net.ssl.SSLContext;
 
 import com.janilla.addressbook.backend.AddressBookBackend;
+import com.janilla.addressbook.backend.ApiTraining;
 import com.janilla.addressbook.backend.BackendExchange;
+import com.janilla.addressbook.backend.ClassIndex;
+import com.janilla.addressbook.backend.LoopbackClient;
 import com.janilla.addressbook.frontend.AddressBookFrontend;
+import com.janilla.addressbook.frontend.PageTraining;
 import com.janilla.http.HttpClient;
 import com.janilla.http.HttpHandler;
 import com.janilla.http.HttpServer;
@@ -59,10 +66,20 @@ public class AddressBookFullstack {
 
 	public static void main(String[] args) {
 		IO.println(ProcessHandle.current().pid());
-		var f = new DefaultDiFactory(
-				Arrays.stream(DI_PACKAGES).flatMap(x -> Java.getPackageClasses(x, false).stream()).toList(),
+		var f = new DefaultDiFactory(Arrays.stream(DI_PACKAGES)
+				.flatMap(x -> ClassIndex.getPackageClasses(AddressBookFullstack.class, x).stream()).toList(),
 				"fullstack");
-		serve(f, args.length > 0 ? args[0] : null);
+		var c = args.length > 0 ? args[0] : null;
+		if (Boolean.getBoolean("address-book.training")) {
+			var b = "https://localhost:" + new CustomProperties(c != null
+					? Path.of(c.startsWith("~") ? System.getProperty("user.home") + c.substring(1) : c)
+					: null).getProperty("address-book.server.port");
+			var u = URI.create(b + "/");
+			var h = LoopbackClient.newBuilder(u).build();
+			Thread.ofVirtual().start(
+					() -> System.exit(ApiTraining.run(h, u.resolve("api")) && PageTraining.run(h, u) ? 0 : 1));
+		}
+		serve(f, c);
 	}
 
 	protected static void serve(DiFactory diFactory, String configurationPath) {
@@ -100,7 +117,16 @@ public class AddressBookFullstack {
 			s = a.diFactory.newInstance(a.diFactory.classFor(HttpServer.class),
 					Map.of("sslContext", c, "endpoint", new InetSocketAddress(p), "handler", a.handler));
 		}
-		s.serve();
+		ProcessHandle.current().info().startInstant()
+				.ifPresent(x -> IO.println("Started in " + Duration.between(x, Instant.now()).toMillis() + " ms"));
+		a.backend.databaseStats().start();
+		a.backend.settingsWatcher().start();
+		try {
+			s.serve();
+		} finally {
+			a.backend.settingsWatcher().close();
+			a.backend.databaseStats().close();
+		}
 	}
 
 	protected AddressBookBackend backend;
@@ -139,7 +165,9 @@ public class AddressBookFullstack {
 												Stream.of("backend", "fullstack")
 														.map(x -> AddressBookBackend.class.getPackageName()
 																.replace(".backend", "." + x)))
-										.flatMap(x -> Java.getPackageClasses(x, false).stream()).toList(), "backend"),
+										.flatMap(x -> ClassIndex
+												.getPackageClasses(AddressBookFullstack.class, x).stream())
+										.toList(), "backend"),
 								"configurationFile", cf)));
 		frontend = ScopedValue.where(INSTANCE, this)
 				.call(() -> diFactory.newInstance(diFactory.classFor(AddressBookFrontend.class),
@@ -149,7 +177,9 @@ public class AddressBookFullstack {
 												Stream.of("frontend", "fullstack")
 														.map(x -> AddressBookFrontend.class.getPackageName()
 																.replace(".frontend", "." + x)))
-										.flatMap(x -> Java.getPackageClasses(x, false).stream()).toList(), "frontend"),
+										.flatMap(x -> ClassIndex
+												.getPackageClasses(AddressBookFullstack.class, x).stream())
+										.toList(), "frontend"),
 								"configurationFile", cf)));
 	}
 
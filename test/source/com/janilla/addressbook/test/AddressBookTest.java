@@ -28,10 +28,11 @@ package com.janilla.addressbook.test;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.lang.reflect.Modifier;
 import java.net.InetSocketAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
@@ -42,6 +43,7 @@ import java.util.stream.Stream;
 
 import javax.net.ssl.SSLContext;
 
+import com.janilla.addressbook.backend.ClassIndex;
 import com.janilla.addressbook.fullstack.AddressBookFullstack;
 import com.janilla.http.HttpClient;
 import com.janilla.http.HttpHandler;
@@ -51,7 +53,6 @@ import com.janilla.ioc.DiFactory;
 import com.janilla.java.Java;
 import com.janilla.web.ApplicationHandlerFactory;
 import com.janilla.web.Handle;
-import com.janilla.web.Invocable;
 import com.janilla.web.InvocationResolver;
 import com.janilla.web.NotFoundException;
 import com.janilla.web.Render;
@@ -65,8 +66,8 @@ public class AddressBookTest {
 
 	public static void main(String[] args) {
 		IO.println(ProcessHandle.current().pid());
-		var f = new DefaultDiFactory(
-				Arrays.stream(DI_PACKAGES).flatMap(x -> Java.getPackageClasses(x, false).stream()).toList());
+		var f = new DefaultDiFactory(Arrays.stream(DI_PACKAGES)
+				.flatMap(x -> ClassIndex.getPackageClasses(AddressBookTest.class, x).stream()).toList());
 		serve(f, args.length > 0 ? args[0] : null);
 	}
 
@@ -105,6 +106,8 @@ public class AddressBookTest {
 			s = a.diFactory.newInstance(a.diFactory.classFor(HttpServer.class),
 					Map.of("sslContext", c, "endpoint", new InetSocketAddress(p), "handler", a.handler));
 		}
+		ProcessHandle.current().info().startInstant()
+				.ifPresent(x -> IO.println("Started in " + Duration.between(x, Instant.now()).toMillis() + " ms"));
 		s.serve();
 	}
 
@@ -130,18 +133,15 @@ public class AddressBookTest {
 
 		{
 			var f = new DefaultDiFactory(Arrays.stream(AddressBookFullstack.DI_PACKAGES)
-					.flatMap(x -> Java.getPackageClasses(x, false).stream()).toList(), "fullstack");
+					.flatMap(x -> ClassIndex.getPackageClasses(AddressBookTest.class, x).stream()).toList(),
+					"fullstack");
 			fullstack = diFactory.newInstance(diFactory.classFor(AddressBookFullstack.class),
 					Java.hashMap("diFactory", f, "configurationFile", configurationFile));
 		}
 
 		invocationResolver = diFactory.newInstance(diFactory.classFor(InvocationResolver.class),
 				Map.of("invocables",
-						diFactory.types().stream()
-								.flatMap(x -> Arrays.stream(x.getMethods())
-										.filter(y -> !Modifier.isStatic(y.getModifiers()) && !y.isBridge())
-										.map(y -> new Invocable(x, y)))
-								.toList(),
+						ClassIndex.getInvocables(AddressBookTest.class, diFactory.types()),
 						"instanceResolver", (Function<Class<?>, Object>) x -> {
 							var y = diFactory.context();
 //							IO.println("x=" + x + ", y=" + y);
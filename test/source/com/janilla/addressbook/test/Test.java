@@ -51,13 +51,17 @@ public class Test {
 		if (ONGOING.getAndSet(true))
 			throw new IllegalStateException();
 
-		var d = fullstack.backend().persistence().database();
+		var b = fullstack.backend();
+		var d = b.persistence().database();
 		var ch1 = (FileChannel) d.channel().channel();
 		try (var ch2 = Channels.newChannel(getClass().getResourceAsStream("address-book-test.db"))) {
 			var s = ch1.transferFrom(ch2, 0, Long.MAX_VALUE);
 			ch1.truncate(s);
 		}
 		d.pageCache().clear();
+		b.contactCache().clear();
+		b.revision().increment();
+		fullstack.frontend().dataFetching().clear();
 	}
 
 	@Handle(method = "POST", path = "stop")